@@ -0,0 +1,52 @@
+package ru.practicum.shareit.benchmark;
+
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Тестовые сущности для бенчмарков.
+ */
+final class BenchmarkData {
+    static final LocalDateTime NOW = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+
+    private BenchmarkData() {
+    }
+
+    static User user(long id) {
+        return new User(id, "user" + id, "user" + id + "@mail.ru");
+    }
+
+    static Item item(long id, User owner) {
+        return new Item(id, "Дрель " + id, "Аккумуляторная дрель, два аккумулятора в комплекте", true, owner,
+                id % 3 == 0 ? id : null);
+    }
+
+    static Booking booking(long id, Item item, User booker) {
+        LocalDateTime start = NOW.plusHours(id % 240 - 120);
+        return new Booking(id, start, start.plusDays(1), item, booker, Status.values()[(int) (id % 4)]);
+    }
+
+    static List<Item> items(int count) {
+        List<Item> items = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            items.add(item(id, user(id % 50 + 1)));
+        }
+        return items;
+    }
+
+    static List<Booking> bookings(int count) {
+        List<Item> items = items(Math.max(1, count / 10));
+        List<Booking> bookings = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            bookings.add(booking(id, items.get((int) (id % items.size())), user(id % 200 + 100)));
+        }
+        return bookings;
+    }
+}
@@ -0,0 +1,124 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BookingServiceImpl.getAllBookings на встроенной H2 (профиль test), заполненной перед запуском.
+ * Каждый вызов запрашивает первую страницу бронирований очередного пользователя.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingServiceBenchmark {
+    private static final int PAGE_SIZE = 20;
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"ALL", "CURRENT", "PAST", "FUTURE", "WAITING"})
+    public String state;
+
+    @Param({"200"})
+    public int bookers;
+
+    @Param({"20000"})
+    public int bookings;
+
+    private ConfigurableApplicationContext context;
+    private BookingService bookingService;
+    private List<Long> bookerIds;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties(
+                        "logging.level.root=WARN",
+                        "logging.level.ru.practicum.shareit=WARN",
+                        "logging.level.org.springframework.transaction.interceptor=WARN",
+                        "logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN")
+                .run();
+        bookingService = context.getBean(BookingService.class);
+        seed(context.getBean(UserRepository.class), context.getBean(ItemRepository.class),
+                context.getBean(BookingRepository.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<BookingDto> getAllBookings() {
+        Long bookerId = bookerIds.get(next++ % bookerIds.size());
+        return bookingService.getAllBookings(bookerId, state, 0, PAGE_SIZE);
+    }
+
+    private void seed(UserRepository userRepository, ItemRepository itemRepository,
+                      BookingRepository bookingRepository) {
+        int owners = Math.max(1, bookers / 2);
+        List<User> users = new ArrayList<>(owners + bookers);
+        for (long id = 1; id <= owners + bookers; id++) {
+            User user = BenchmarkData.user(id);
+            user.setId(null);
+            users.add(user);
+        }
+        users = userRepository.saveAll(users);
+        List<User> bookerUsers = users.subList(owners, users.size());
+        bookerIds = new ArrayList<>(bookers);
+        bookerUsers.forEach(user -> bookerIds.add(user.getId()));
+
+        List<Item> items = new ArrayList<>(owners * 10);
+        for (long id = 1; id <= owners * 10L; id++) {
+            Item item = BenchmarkData.item(id, users.get((int) (id % owners)));
+            item.setId(null);
+            item.setRequestId(null);
+            items.add(item);
+        }
+        items = itemRepository.saveAll(items);
+
+        List<Booking> batch = new ArrayList<>(BATCH_SIZE);
+        for (long id = 1; id <= bookings; id++) {
+            Booking booking = BenchmarkData.booking(id, items.get((int) (id % items.size())),
+                    bookerUsers.get((int) (id % bookerUsers.size())));
+            booking.setId(null);
+            batch.add(booking);
+            if (batch.size() == BATCH_SIZE) {
+                bookingRepository.saveAll(batch);
+                batch.clear();
+            }
+        }
+        bookingRepository.saveAll(batch);
+    }
+}
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Сериализация ответов со списками вещей и бронирований тем же ObjectMapper, что настраивает Spring Boot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    private ObjectWriter itemsWriter;
+    private ObjectWriter bookingsWriter;
+    private List<ItemWithBookingsDto> items;
+    private List<BookingDto> bookings;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        TypeFactory types = mapper.getTypeFactory();
+        itemsWriter = mapper.writerFor(types.constructCollectionType(List.class, ItemWithBookingsDto.class));
+        bookingsWriter = mapper.writerFor(types.constructCollectionType(List.class, BookingDto.class));
+
+        List<Booking> bookingEntities = BenchmarkData.bookings(size * 2);
+        items = BenchmarkData.items(size).stream()
+                .map(item -> withBookings(item, bookingEntities))
+                .collect(Collectors.toList());
+        bookings = bookingEntities.subList(0, size).stream()
+                .map(BookingMapper::toBookingDto)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public byte[] itemsWithBookings() throws JsonProcessingException {
+        return itemsWriter.writeValueAsBytes(items);
+    }
+
+    @Benchmark
+    public byte[] bookings() throws JsonProcessingException {
+        return bookingsWriter.writeValueAsBytes(bookings);
+    }
+
+    private static ItemWithBookingsDto withBookings(Item item, List<Booking> bookings) {
+        ItemWithBookingsDto dto = ItemMapper.toFullItemDto(item);
+        int index = (int) (item.getId() % (bookings.size() - 1));
+        dto.setOwner(item.getOwner());
+        dto.setLastBooking(BookingMapper.toBookingShortDto(bookings.get(index)));
+        dto.setNextBooking(BookingMapper.toBookingShortDto(bookings.get(index + 1)));
+        dto.setComments(List.of(
+                new CommentDto(item.getId() * 2, "Отличная дрель", "user2", BenchmarkData.NOW),
+                new CommentDto(item.getId() * 2 + 1, "Сел аккумулятор", "user3", BenchmarkData.NOW)));
+        return dto;
+    }
+}
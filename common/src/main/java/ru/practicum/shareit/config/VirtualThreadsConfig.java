@@ -0,0 +1,46 @@
+package ru.practicum.shareit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Обработка входящих запросов Tomcat в виртуальных потоках (shareit.threads.virtual=true).
+ * Общая для сервера и шлюза: оба приложения сканируют пакет ru.practicum.shareit.
+ * Виртуальные потоки появились в Java 21, поэтому исполнитель получается через рефлексию:
+ * на более старой JVM, в том числе в образах из server/Dockerfile и gateway/Dockerfile (Java 11),
+ * остается стандартный пул потоков Tomcat. Режим включается только при запуске jar на Java 21+.
+ * Режим экспериментальный: сравнения под нагрузкой со стандартным пулом нет, поэтому он выключен
+ * по умолчанию и поставляемые образы остаются на Java 11.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "shareit.threads.virtual", havingValue = "true")
+public class VirtualThreadsConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadsProtocolHandlerCustomizer() {
+        ExecutorService executor = virtualThreadExecutor();
+        return protocolHandler -> {
+            if (executor != null) {
+                protocolHandler.setExecutor(executor);
+                log.info("Запросы обрабатываются в виртуальных потоках");
+            }
+        };
+    }
+
+    private static ExecutorService virtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            log.warn("Виртуальные потоки недоступны в Java {}, используется стандартный пул Tomcat",
+                    Runtime.version());
+            return null;
+        }
+    }
+}
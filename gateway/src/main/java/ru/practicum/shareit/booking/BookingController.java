@@ -6,12 +6,18 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.util.List;
 
 @Controller
 @RequestMapping(path = "/bookings")
@@ -20,10 +26,11 @@ import javax.validation.constraints.Min;
 @Validated
 public class BookingController {
     public static final String HEADER_USER_ID = "X-Sharer-User-Id";
+    private static final int MAX_BATCH_SIZE = 500;
     private final BookingClient bookingClient;
 
     @GetMapping
-    public ResponseEntity<Object> findAllBookings(@RequestHeader(HEADER_USER_ID) long userId,
+    public Mono<ResponseEntity<Object>> findAllBookings(@RequestHeader(HEADER_USER_ID) long userId,
                                               @RequestParam(name = "state", defaultValue = "all") String stateParam,
                                                   @Valid @RequestParam(value = "from", defaultValue = "0")
                                                       @Min(0) Integer from,
@@ -36,7 +43,7 @@ public class BookingController {
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> findBookingsByOwner(@RequestHeader(HEADER_USER_ID) long userId,
+    public Mono<ResponseEntity<Object>> findBookingsByOwner(@RequestHeader(HEADER_USER_ID) long userId,
                                                   @RequestParam(name = "state", defaultValue = "all") String stateParam,
                                                       @Valid @RequestParam(value = "from", defaultValue = "0")
                                                           @Min(0) Integer from,
@@ -49,22 +56,90 @@ public class BookingController {
         return bookingClient.findBookingsByOwner(userId, state, from, size);
     }
 
+    /**
+     * Постраничная выдача по курсору: пустой cursor запрашивает первую страницу,
+     * токен следующей страницы возвращается в заголовке X-Next-Cursor.
+     */
+    @GetMapping(params = "cursor")
+    public Mono<ResponseEntity<Object>> findAllBookingsByCursor(@RequestHeader(HEADER_USER_ID) long userId,
+                                                          @RequestParam(name = "state", defaultValue = "all")
+                                                          String stateParam,
+                                                          @RequestParam(value = "cursor") String cursor,
+                                                          @Valid @RequestParam(value = "size", defaultValue = "20")
+                                                          @Min(1) @Max(100) Integer size) {
+        BookingState state = BookingState.from(stateParam)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
+        log.info("Получен GET запрос на просмотр {} бронирований по курсору, отправлен пользователем id {}",
+                state, userId);
+        return bookingClient.getBookingsByCursor(userId, state, cursor, size);
+    }
+
+    @GetMapping(value = "/owner", params = "cursor")
+    public Mono<ResponseEntity<Object>> findBookingsByOwnerByCursor(@RequestHeader(HEADER_USER_ID) long userId,
+                                                              @RequestParam(name = "state", defaultValue = "all")
+                                                              String stateParam,
+                                                              @RequestParam(value = "cursor") String cursor,
+                                                              @Valid @RequestParam(value = "size", defaultValue = "20")
+                                                              @Min(1) @Max(100) Integer size) {
+        BookingState state = BookingState.from(stateParam)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
+        log.info("Получен GET запрос на просмотр {} бронирований всех вещей по курсору, отправлен пользователем id {}",
+                state, userId);
+        return bookingClient.findBookingsByOwnerByCursor(userId, state, cursor, size);
+    }
+
     @PostMapping
-    public ResponseEntity<Object> addBooking(@RequestHeader(HEADER_USER_ID) long userId,
+    public Mono<ResponseEntity<Object>> addBooking(@RequestHeader(HEADER_USER_ID) long userId,
                                            @RequestBody @Valid BookingInputDto requestDto) {
         log.info("Получен запрос POST на бронирование {}, от пользователя id {}", requestDto, userId);
         return bookingClient.bookItem(userId, requestDto);
     }
 
+    /**
+     * Выгрузка всей истории бронирований вещей владельца в NDJSON. Ответ сервера не разбирается,
+     * а передается клиенту потоком, поэтому размер выгрузки не ограничен памятью шлюза.
+     */
+    @GetMapping("/owner/export")
+    public Mono<ResponseEntity<Object>> exportBookingsByOwner(@RequestHeader(HEADER_USER_ID) long userId) {
+        log.info("Получен GET запрос на выгрузку бронирований всех вещей, отправлен пользователем id {}", userId);
+        return bookingClient.exportBookingsByOwner(userId);
+    }
+
+    /**
+     * Пакетное бронирование: проверяется только размер пакета, записи проверяет сервер
+     * и возвращает результат по каждой из них, ошибочные записи не отменяют остальные.
+     */
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Object>> addBookings(@RequestHeader(HEADER_USER_ID) long userId,
+                                                    @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE)
+                                                    List<@NotNull BookingInputDto> requestDtos) {
+        log.info("Получен запрос POST на пакетное бронирование {} вещей, от пользователя id {}",
+                requestDtos.size(), userId);
+        return bookingClient.bookItems(userId, requestDtos);
+    }
+
+    /**
+     * Пакетные решения владельца: результат возвращается по каждому бронированию,
+     * отказ по одному не отменяет остальные.
+     */
+    @PatchMapping("/owner/decisions")
+    public Mono<ResponseEntity<Object>> decideBookings(@RequestHeader(HEADER_USER_ID) long userId,
+                                                       @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE)
+                                                       List<@NotNull @Valid BookingDecisionDto> decisions) {
+        log.info("Получен запрос PATCH на {} решений по бронированиям, от пользователя id {}",
+                decisions.size(), userId);
+        return bookingClient.decide(userId, decisions);
+    }
+
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> findById(@RequestHeader(HEADER_USER_ID) long userId,
+    public Mono<ResponseEntity<Object>> findById(@RequestHeader(HEADER_USER_ID) long userId,
                                              @PathVariable Long bookingId) {
         log.info("Получен GET запрос на просмотр бронирования id {}, отправлен пользователем id {}", bookingId, userId);
         return bookingClient.getBooking(userId, bookingId);
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> update(@RequestHeader(HEADER_USER_ID) long userId,
+    public Mono<ResponseEntity<Object>> update(@RequestHeader(HEADER_USER_ID) long userId,
                                    @PathVariable Long bookingId,
                                    @RequestParam Boolean approved) {
         log.info("Получен запрос PATCH обновление статуса бронирования {}, от пользователя id {}, статус {}",
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Настройки соединений шлюза с сервером.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.client")
+public class ClientProperties {
+    /**
+     * blocking — RestTemplate, поток обработки запроса ждет ответа сервера;
+     * reactive — WebClient, поток освобождается до получения ответа.
+     */
+    private Mode mode = Mode.BLOCKING;
+    /**
+     * Передавать тело ответа сервера клиенту потоком байтов, без разбора JSON на шлюзе.
+     */
+    private boolean passThrough = false;
+    private int maxConnections = 200;
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration responseTimeout = Duration.ofSeconds(10);
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+    /**
+     * Время ожидания ответа для отдельных маршрутов: префикс пути -> таймаут.
+     */
+    private Map<String, Duration> routeTimeouts = new LinkedHashMap<>();
+
+    public Duration timeoutFor(String path) {
+        Duration timeout = responseTimeout;
+        int longest = -1;
+        for (Map.Entry<String, Duration> route : routeTimeouts.entrySet()) {
+            if (path.startsWith(route.getKey()) && route.getKey().length() > longest) {
+                longest = route.getKey().length();
+                timeout = route.getValue();
+            }
+        }
+        return timeout;
+    }
+
+    public enum Mode {
+        BLOCKING,
+        REACTIVE
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.lang.Nullable;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.AsyncHandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitterReturnValueHandler;
+
+import java.util.List;
+
+/**
+ * Отдает ResponseEntity с телом ResponseBodyEmitter обработчику ResponseBodyEmitter. Контроллеры шлюза
+ * объявляют Mono&lt;ResponseEntity&lt;Object&gt;&gt;, и стандартный выбор по объявленному типу тела
+ * записал бы его конвертером в потоке запроса; здесь обработчик выбирается по фактическому телу.
+ */
+class EmitterEntityReturnValueHandler implements AsyncHandlerMethodReturnValueHandler {
+    private final ResponseBodyEmitterReturnValueHandler delegate;
+
+    EmitterEntityReturnValueHandler(List<HttpMessageConverter<?>> messageConverters) {
+        this.delegate = new ResponseBodyEmitterReturnValueHandler(messageConverters);
+    }
+
+    @Override
+    public boolean isAsyncReturnValue(@Nullable Object returnValue, MethodParameter returnType) {
+        return returnValue instanceof ResponseEntity
+                && ((ResponseEntity<?>) returnValue).getBody() instanceof ResponseBodyEmitter;
+    }
+
+    @Override
+    public boolean supportsReturnType(MethodParameter returnType) {
+        return ResponseEntity.class.isAssignableFrom(returnType.getParameterType());
+    }
+
+    @Override
+    public void handleReturnValue(@Nullable Object returnValue, MethodParameter returnType,
+                                  ModelAndViewContainer mavContainer, NativeWebRequest webRequest) throws Exception {
+        delegate.handleReturnValue(returnValue, returnType, mavContainer, webRequest);
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Передача запроса шлюза на сервер. Путь указывается относительно shareit-server.url.
+ */
+public interface GatewayTransport {
+    default Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, @Nullable Long userId,
+                                                  @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        return exchange(method, path, userId, parameters, body, null);
+    }
+
+    /**
+     * @param headers заголовки запроса клиента, которые передаются серверу, например If-None-Match
+     */
+    Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, @Nullable Long userId,
+                                          @Nullable Map<String, Object> parameters, @Nullable Object body,
+                                          @Nullable HttpHeaders headers);
+
+    /**
+     * Как exchange в режиме pass-through: тело ответа отдается клиенту потоком независимо
+     * от shareit-server.client.pass-through. Для ответов, которые нельзя собирать в памяти шлюза.
+     */
+    Mono<ResponseEntity<Object>> stream(HttpMethod method, String path, @Nullable Long userId,
+                                        @Nullable Map<String, Object> parameters);
+}
@@ -0,0 +1,137 @@
+package ru.practicum.shareit.client;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.protocol.HttpContext;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Блокирующая передача через RestTemplate с общим пулом соединений Apache HttpClient.
+ * Запрос выполняется в момент подписки, то есть в потоке обработки входящего запроса.
+ */
+public class RestTemplateTransport implements GatewayTransport {
+    private final RestTemplate rest;
+    private final boolean passThrough;
+
+    public RestTemplateTransport(String serverUrl, ClientProperties properties) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(
+                properties.getMaxIdleTime().toMillis(), TimeUnit.MILLISECONDS);
+        connectionManager.setMaxTotal(properties.getMaxConnections());
+        connectionManager.setDefaultMaxPerRoute(properties.getMaxConnections());
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .evictIdleConnections(properties.getMaxIdleTime().toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient) {
+            @Override
+            protected HttpContext createHttpContext(HttpMethod httpMethod, URI uri) {
+                HttpClientContext context = HttpClientContext.create();
+                context.setRequestConfig(RequestConfig.custom()
+                        .setConnectTimeout((int) properties.getConnectTimeout().toMillis())
+                        .setConnectionRequestTimeout((int) properties.getPendingAcquireTimeout().toMillis())
+                        .setSocketTimeout((int) properties.timeoutFor(uri.getPath()).toMillis())
+                        .build());
+                return context;
+            }
+        };
+        // тело запроса (например, файл импорта) отправляется потоком, а не копируется в память целиком
+        requestFactory.setBufferRequestBody(false);
+        this.rest = new RestTemplate(requestFactory);
+        this.rest.setUriTemplateHandler(new DefaultUriBuilderFactory(serverUrl));
+        this.passThrough = properties.isPassThrough();
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, @Nullable Long userId,
+                                                 @Nullable Map<String, Object> parameters, @Nullable Object body,
+                                                 @Nullable HttpHeaders headers) {
+        if (passThrough) {
+            return Mono.fromCallable(() -> stream(method, path, userId, parameters, body, headers));
+        }
+        return Mono.fromCallable(() -> send(method, path, userId, parameters, body, headers));
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> stream(HttpMethod method, String path, @Nullable Long userId,
+                                               @Nullable Map<String, Object> parameters) {
+        return Mono.fromCallable(() -> stream(method, path, userId, parameters, null, null));
+    }
+
+    /**
+     * Отдает тело ответа сервера потоком: соединение возвращается в пул,
+     * когда Spring MVC дочитает и закроет InputStream.
+     */
+    private ResponseEntity<Object> stream(HttpMethod method, String path, @Nullable Long userId,
+                                          @Nullable Map<String, Object> parameters, @Nullable Object body,
+                                          @Nullable HttpHeaders headers) throws IOException {
+        URI uri = parameters != null
+                ? rest.getUriTemplateHandler().expand(path, parameters)
+                : rest.getUriTemplateHandler().expand(path);
+        ClientHttpRequest request = rest.getRequestFactory().createRequest(uri, method);
+        rest.httpEntityCallback(new HttpEntity<>(body, BaseClient.defaultHeaders(userId, headers)))
+                .doWithRequest(request);
+        ClientHttpResponse response;
+        try {
+            response = request.execute();
+        } catch (SocketTimeoutException e) {
+            return BaseClient.errorResponse(HttpStatus.GATEWAY_TIMEOUT, "Сервер не ответил вовремя");
+        }
+        InputStream content = new FilterInputStream(response.getBody()) {
+            @Override
+            public void close() {
+                response.close();
+            }
+        };
+        return ResponseEntity.status(response.getRawStatusCode())
+                .headers(BaseClient.passThroughHeaders(response.getHeaders()))
+                .body(new InputStreamResource(content));
+    }
+
+    private ResponseEntity<Object> send(HttpMethod method, String path, @Nullable Long userId,
+                                        @Nullable Map<String, Object> parameters, @Nullable Object body,
+                                        @Nullable HttpHeaders headers) {
+        HttpEntity<Object> requestEntity = new HttpEntity<>(body, BaseClient.defaultHeaders(userId, headers));
+
+        ResponseEntity<Object> shareitServerResponse;
+        try {
+            if (parameters != null) {
+                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
+            } else {
+                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+            }
+        } catch (HttpStatusCodeException e) {
+            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+        } catch (ResourceAccessException e) {
+            if (e.getCause() instanceof SocketTimeoutException) {
+                return BaseClient.errorResponse(HttpStatus.GATEWAY_TIMEOUT, "Сервер не ответил вовремя");
+            }
+            throw e;
+        }
+        return BaseClient.prepareGatewayResponse(shareitServerResponse);
+    }
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class StreamingMvcConfig implements WebMvcConfigurer {
+    private final ObjectProvider<HttpMessageConverters> messageConverters;
+
+    public StreamingMvcConfig(ObjectProvider<HttpMessageConverters> messageConverters) {
+        this.messageConverters = messageConverters;
+    }
+
+    @Override
+    public void addReturnValueHandlers(List<HandlerMethodReturnValueHandler> handlers) {
+        handlers.add(new EmitterEntityReturnValueHandler(messageConverters.getObject().getConverters()));
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClient;
+
+@Configuration
+@EnableConfigurationProperties(ClientProperties.class)
+public class TransportConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "shareit-server.client.mode", havingValue = "blocking", matchIfMissing = true)
+    public GatewayTransport restTemplateTransport(@Value("${shareit-server.url}") String serverUrl,
+                                                  ClientProperties properties) {
+        return new RestTemplateTransport(serverUrl, properties);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "shareit-server.client.mode", havingValue = "reactive")
+    public GatewayTransport webClientTransport(@Value("${shareit-server.url}") String serverUrl,
+                                               ClientProperties properties, WebClient.Builder builder) {
+        return new WebClientTransport(serverUrl, properties, builder);
+    }
+}
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.client;
+
+import org.reactivestreams.Subscription;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.lang.Nullable;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Передает клиенту тело ответа сервера по мере прихода буферов. Чтение тела начинается, когда
+ * Spring MVC записал статус и заголовки; буфер пишется клиенту на потоке boundedElastic, только
+ * пока есть данные, поэтому ни поток обработки запроса, ни event loop не ждут ответа сервера.
+ * В памяти одновременно не больше PREFETCH буферов.
+ */
+class UpstreamBodyEmitter extends ResponseBodyEmitter {
+    private static final int PREFETCH = 4;
+
+    private final Flux<DataBuffer> body;
+    @Nullable
+    private final MediaType contentType;
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+    private final BodySubscriber subscriber = new BodySubscriber();
+
+    UpstreamBodyEmitter(Flux<DataBuffer> body, @Nullable MediaType contentType) {
+        // без ограничения общей длительности: паузу между порциями ограничивает responseTimeout клиента
+        super(0L);
+        this.body = body;
+        this.contentType = contentType;
+        onTimeout(this::cancel);
+        onError(error -> cancel());
+        onCompletion(this::cancel);
+    }
+
+    @Override
+    protected void extendResponse(ServerHttpResponse outputMessage) {
+        super.extendResponse(outputMessage);
+        if (subscribed.compareAndSet(false, true)) {
+            body.publishOn(Schedulers.boundedElastic(), PREFETCH)
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                    .subscribe(subscriber);
+        }
+    }
+
+    private void cancel() {
+        if (subscribed.compareAndSet(false, true)) {
+            // тело так и не читалось: отмена подписки возвращает соединение в пул
+            body.subscribe(new BaseSubscriber<>() {
+                @Override
+                protected void hookOnSubscribe(Subscription subscription) {
+                    subscription.cancel();
+                }
+            });
+        }
+        subscriber.dispose();
+    }
+
+    private class BodySubscriber extends BaseSubscriber<DataBuffer> {
+        @Override
+        protected void hookOnNext(DataBuffer buffer) {
+            try {
+                byte[] bytes = new byte[buffer.readableByteCount()];
+                buffer.read(bytes);
+                UpstreamBodyEmitter.this.send(bytes, contentType);
+            } catch (IOException | IllegalStateException e) {
+                // клиент закрыл соединение, Spring MVC сам завершит запрос
+                dispose();
+            } finally {
+                DataBufferUtils.release(buffer);
+            }
+        }
+
+        @Override
+        protected void hookOnComplete() {
+            UpstreamBodyEmitter.this.complete();
+        }
+
+        @Override
+        protected void hookOnError(Throwable throwable) {
+            UpstreamBodyEmitter.this.completeWithError(throwable);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package ru.practicum.shareit.client;
+
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.lang.Nullable;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.HttpClientRequest;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Неблокирующая передача через WebClient. Все клиенты используют один ограниченный пул
+ * keep-alive соединений; поток обработки входящего запроса не ждет ответа сервера,
+ * в том числе при передаче тела потоком (см. UpstreamBodyEmitter).
+ */
+@Slf4j
+public class WebClientTransport implements GatewayTransport {
+    private final WebClient webClient;
+    private final ClientProperties properties;
+
+    public WebClientTransport(String serverUrl, ClientProperties properties, WebClient.Builder builder) {
+        this.properties = properties;
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("shareit-server")
+                .maxConnections(properties.getMaxConnections())
+                .pendingAcquireTimeout(properties.getPendingAcquireTimeout())
+                .maxIdleTime(properties.getMaxIdleTime())
+                .build();
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .keepAlive(true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis());
+        this.webClient = builder
+                .baseUrl(serverUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, @Nullable Long userId,
+                                                 @Nullable Map<String, Object> parameters, @Nullable Object body,
+                                                 @Nullable HttpHeaders headers) {
+        return send(method, path, userId, parameters, body, headers, properties.isPassThrough());
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> stream(HttpMethod method, String path, @Nullable Long userId,
+                                               @Nullable Map<String, Object> parameters) {
+        return send(method, path, userId, parameters, null, null, true);
+    }
+
+    private Mono<ResponseEntity<Object>> send(HttpMethod method, String path, @Nullable Long userId,
+                                              @Nullable Map<String, Object> parameters, @Nullable Object body,
+                                              @Nullable HttpHeaders extraHeaders, boolean streaming) {
+        Duration timeout = properties.timeoutFor(path);
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> headers.addAll(BaseClient.defaultHeaders(userId, extraHeaders)))
+                .httpRequest(httpRequest -> {
+                    HttpClientRequest nativeRequest = httpRequest.getNativeRequest();
+                    nativeRequest.responseTimeout(timeout);
+                });
+        WebClient.RequestHeadersSpec<?> spec = body != null ? request.bodyValue(body) : request;
+        Mono<ResponseEntity<Object>> response = streaming ? stream(spec) : parse(spec);
+        return response
+                .onErrorResume(WebClientTransport::isTimeout, e -> {
+                    log.warn("Сервер не ответил за {} на запрос {} {}", timeout, method, path);
+                    return Mono.just(BaseClient.errorResponse(HttpStatus.GATEWAY_TIMEOUT,
+                            "Сервер не ответил вовремя"));
+                });
+    }
+
+    private Mono<ResponseEntity<Object>> parse(WebClient.RequestHeadersSpec<?> spec) {
+        return spec.exchangeToMono(response -> {
+                    if (response.statusCode().is2xxSuccessful()) {
+                        return response.toEntity(Object.class);
+                    }
+                    if (response.statusCode() == HttpStatus.NOT_MODIFIED) {
+                        return response.releaseBody().thenReturn(ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                                .headers(BaseClient.passThroughHeaders(response.headers().asHttpHeaders()))
+                                .<Object>build());
+                    }
+                    return response.bodyToMono(byte[].class)
+                            .defaultIfEmpty(new byte[0])
+                            .map(bytes -> ResponseEntity.status(response.rawStatusCode()).<Object>body(bytes));
+                });
+    }
+
+    /**
+     * Отдает тело ответа сервера потоком буферов, не собирая его целиком в памяти шлюза
+     * и не занимая поток на время ожидания следующей порции.
+     */
+    private Mono<ResponseEntity<Object>> stream(WebClient.RequestHeadersSpec<?> spec) {
+        return spec.retrieve()
+                .onStatus(HttpStatus::isError, response -> Mono.empty())
+                .toEntityFlux(DataBuffer.class)
+                .map(entity -> ResponseEntity.status(entity.getStatusCodeValue())
+                        .headers(BaseClient.passThroughHeaders(entity.getHeaders()))
+                        .<Object>body(new UpstreamBodyEmitter(entity.getBody(), entity.getHeaders().getContentType())));
+    }
+
+    private static boolean isTimeout(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ReadTimeoutException || cause instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -6,6 +6,8 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import javax.validation.ConstraintViolationException;
+
 @Slf4j
 @RestControllerAdvice
 public class ErrorHandler {
@@ -15,4 +17,11 @@ public class ErrorHandler {
         log.debug("Получен статус 400 Bad Request {}", exception.getMessage(), exception);
         return new ErrorResponse(exception.getMessage());
     }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleConstraintViolationException(final ConstraintViolationException exception) {
+        log.debug("Получен статус 400 Bad Request {}", exception.getMessage(), exception);
+        return new ErrorResponse(exception.getMessage());
+    }
 }
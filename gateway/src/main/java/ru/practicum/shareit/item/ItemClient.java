@@ -1,37 +1,35 @@
 package ru.practicum.shareit.item;
 
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GatewayTransport;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
+import java.util.Map;
+
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemClient(GatewayTransport transport) {
+        super(transport, API_PREFIX);
     }
 
-    public ResponseEntity<Object> create(Long userId, ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> create(Long userId, ItemDto itemDto) {
         return post("", userId, itemDto);
     }
 
-    public ResponseEntity<Object> getItemById(Long userId, Long itemId) {
-        return get("/" + itemId, userId);
+    public Mono<ResponseEntity<Object>> getItemById(Long userId, Long itemId, @Nullable String ifNoneMatch) {
+        return getIfNoneMatch("/" + itemId, userId, ifNoneMatch);
     }
 
-    public ResponseEntity<Object> getItemsByOwner(Long userId, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getItemsByOwner(Long userId, Integer from, Integer size) {
         String path = "?from=" + from;
         if (size != null) {
             path += "&size=" + size;
@@ -39,11 +37,15 @@ public class ItemClient extends BaseClient {
         return get(path, userId);
     }
 
-    public ResponseEntity<Object> update(ItemDto itemDto, Long itemId, Long userId) {
+    public Mono<ResponseEntity<Object>> importItems(Long userId, String format, InputStreamResource body) {
+        return post("/import?format={format}", userId, Map.of("format", format), body);
+    }
+
+    public Mono<ResponseEntity<Object>> update(ItemDto itemDto, Long itemId, Long userId) {
         return patch("/" + itemId, userId, itemDto);
     }
 
-    public ResponseEntity<Object> searchItems(String text, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> searchItems(String text, Integer from, Integer size) {
         String path = "/search?text=" + text + "&from=" + from;
         if (size != null) {
             path += "&size=" + size;
@@ -51,7 +53,15 @@ public class ItemClient extends BaseClient {
         return get(path);
     }
 
-    public ResponseEntity<Object> createComment(CommentDto commentDto, Long itemId, Long userId) {
+    public Mono<ResponseEntity<Object>> createComment(CommentDto commentDto, Long itemId, Long userId) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
+
+    public Mono<ResponseEntity<Object>> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
+        );
+        return get("/" + itemId + "/availability?from={from}&to={to}", null, parameters);
+    }
 }
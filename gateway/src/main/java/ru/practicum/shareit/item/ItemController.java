@@ -3,10 +3,14 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
@@ -14,6 +18,8 @@ import javax.validation.Valid;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.PositiveOrZero;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 
 import static ru.practicum.shareit.booking.BookingController.HEADER_USER_ID;
 
@@ -26,7 +32,7 @@ public class ItemController {
     private final ItemClient itemClient;
 
     @GetMapping
-    public ResponseEntity<Object> findAllByOwner(@RequestHeader(HEADER_USER_ID) Long ownerId,
+    public Mono<ResponseEntity<Object>> findAllByOwner(@RequestHeader(HEADER_USER_ID) Long ownerId,
                                                   @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
                                                   @RequestParam(required = false) Integer size) {
         log.info("Получен GET запрос на просмотр вещей, отправлен пользователем id {}", ownerId);
@@ -34,29 +40,43 @@ public class ItemController {
     }
 
     @PostMapping
-    public ResponseEntity<Object> create(@RequestHeader(HEADER_USER_ID) Long userId,
+    public Mono<ResponseEntity<Object>> create(@RequestHeader(HEADER_USER_ID) Long userId,
                                          @RequestBody @Valid ItemDto itemDto) {
         log.info("Получен запрос POST на добавление вещи {}, пользователем id {}", itemDto, userId);
         return itemClient.create(userId, itemDto);
     }
 
+    /**
+     * Как и импорт пользователей, передает тело потоком и ждет ответа сервера в потоке запроса.
+     */
+    @ResponseBody
+    @PostMapping("/import")
+    public ResponseEntity<Object> importItems(@RequestHeader(HEADER_USER_ID) Long userId,
+                                              @RequestParam(defaultValue = "ndjson") String format,
+                                              InputStream body) {
+        log.info("Получен запрос POST на импорт вещей пользователем id {}, формат {}", userId, format);
+        return itemClient.importItems(userId, format, new InputStreamResource(body)).block();
+    }
+
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> findById(@RequestHeader(HEADER_USER_ID) Long userId,
-                                              @PathVariable Long itemId) {
+    public Mono<ResponseEntity<Object>> findById(@RequestHeader(HEADER_USER_ID) Long userId,
+                                                 @PathVariable Long itemId,
+                                                 @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                                 String ifNoneMatch) {
         log.info("Получен GET запрос на просмотр вещи id {}, отправлен пользователем id {}", itemId, userId);
-        return itemClient.getItemById(userId, itemId);
+        return itemClient.getItemById(userId, itemId, ifNoneMatch);
     }
 
     @ResponseBody
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> update(@RequestBody ItemDto itemDto, @PathVariable Long itemId,
+    public Mono<ResponseEntity<Object>> update(@RequestBody ItemDto itemDto, @PathVariable Long itemId,
                                          @RequestHeader(HEADER_USER_ID) Long userId) {
         log.info("Получен запрос PATCH запрос на обновление вещи id {}, пользователем id {}", itemId, userId);
         return itemClient.update(itemDto, itemId, userId);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItems(@RequestParam String text,
+    public Mono<ResponseEntity<Object>> searchItems(@RequestParam String text,
                                               @Valid @RequestParam(value = "from", defaultValue = "0")
                                               @Min(0) Integer from,
                                               @Valid @RequestParam(value = "size", defaultValue = "20")
@@ -65,9 +85,21 @@ public class ItemController {
         return itemClient.searchItems(text, from, size);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public Mono<ResponseEntity<Object>> getAvailability(
+            @PathVariable Long itemId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Получен GET запрос на проверку доступности вещи id {} с {} по {}", itemId, from, to);
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("Начало интервала должно быть раньше окончания");
+        }
+        return itemClient.getAvailability(itemId, from, to);
+    }
+
     @ResponseBody
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> createComment(@RequestBody @Valid CommentDto commentDto,
+    public Mono<ResponseEntity<Object>> createComment(@RequestBody @Valid CommentDto commentDto,
                                                 @RequestHeader(HEADER_USER_ID) Long userId,
                                                 @PathVariable Long itemId) {
         log.info("Получен запрос POST на добавление комментария {} к вещи id {}, пользователем id {}",
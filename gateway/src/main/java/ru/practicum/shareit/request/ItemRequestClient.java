@@ -1,46 +1,49 @@
 package ru.practicum.shareit.request;
 
 
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GatewayTransport;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
+import java.util.Map;
+
 @Service
 public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
 
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemRequestClient(GatewayTransport transport) {
+        super(transport, API_PREFIX);
     }
 
-    public ResponseEntity<Object> create(ItemRequestDto requestDto, Long requestorId) {
+    public Mono<ResponseEntity<Object>> create(ItemRequestDto requestDto, Long requestorId) {
         return post("", requestorId, requestDto);
     }
 
-    public ResponseEntity<Object> getItemRequestById(Long userId, Long requestId) {
+    public Mono<ResponseEntity<Object>> getItemRequestById(Long userId, Long requestId) {
         return get("/" + requestId, userId);
     }
 
-    public ResponseEntity<Object> getOwnItemRequests(Long userId) {
+    public Mono<ResponseEntity<Object>> getOwnItemRequests(Long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getAllItemRequests(Long userId, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getAllItemRequests(Long userId, Integer from, Integer size) {
         String path = "/all" + "?from=" + from;
         if (size != null) {
             path += "&size=" + size;
         }
         return get(path, userId, null);
     }
+
+    public Mono<ResponseEntity<Object>> getAllItemRequestsByCursor(Long userId, String cursor, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "cursor", cursor,
+                "size", size
+        );
+        return get("/all?cursor={cursor}&size={size}", userId, parameters);
+    }
 }
@@ -6,6 +6,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import javax.validation.Valid;
@@ -24,14 +25,14 @@ public class ItemRequestController {
 
     @ResponseBody
     @PostMapping
-    public ResponseEntity<Object> create(@RequestBody @Valid ItemRequestDto itemRequestDto,
+    public Mono<ResponseEntity<Object>> create(@RequestBody @Valid ItemRequestDto itemRequestDto,
                                          @RequestHeader(HEADER_USER_ID) Long requesterId) {
         log.info("Получен запрос POST создание запроса на вещь {}, от пользователя id {}", itemRequestDto, requesterId);
         return itemRequestClient.create(itemRequestDto, requesterId);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> findById(@PathVariable("requestId") Long itemRequestId,
+    public Mono<ResponseEntity<Object>> findById(@PathVariable("requestId") Long itemRequestId,
                                                      @RequestHeader(HEADER_USER_ID) Long userId) {
         log.info("Получен GET запрос на просмотр данных о запросе id {}, отправлен пользователем id {}",
                 itemRequestId, userId);
@@ -40,13 +41,13 @@ public class ItemRequestController {
 
 
     @GetMapping
-    public ResponseEntity<Object> findAllByOwner(@RequestHeader(HEADER_USER_ID) Long userId) {
+    public Mono<ResponseEntity<Object>> findAllByOwner(@RequestHeader(HEADER_USER_ID) Long userId) {
         log.info("Получен GET запрос на просмотр списка всех своих запросов, отправлен пользователем id {}", userId);
         return itemRequestClient.getOwnItemRequests(userId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> findAll(@RequestHeader(HEADER_USER_ID) Long userId,
+    public Mono<ResponseEntity<Object>> findAll(@RequestHeader(HEADER_USER_ID) Long userId,
                                           @Valid @RequestParam(value = "from", defaultValue = "0")
                                           @Min(0) Integer from,
                                           @Valid @RequestParam(value = "size", defaultValue = "20")
@@ -55,5 +56,14 @@ public class ItemRequestController {
                 " отправлен пользователем id {}", userId);
         return itemRequestClient.getAllItemRequests(userId, from, size);
     }
-}
 
+    @GetMapping(value = "/all", params = "cursor")
+    public Mono<ResponseEntity<Object>> findAllByCursor(@RequestHeader(HEADER_USER_ID) Long userId,
+                                                  @RequestParam(value = "cursor") String cursor,
+                                                  @Valid @RequestParam(value = "size", defaultValue = "20")
+                                                  @Min(1) @Max(100) Integer size) {
+        log.info("Получен GET запрос на просмотр запросов других пользователей по курсору," +
+                " отправлен пользователем id {}", userId);
+        return itemRequestClient.getAllItemRequestsByCursor(userId, cursor, size);
+    }
+}
@@ -2,13 +2,16 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import javax.validation.Valid;
+import java.io.InputStream;
 
 @Controller
 @RequestMapping(path = "/users")
@@ -19,33 +22,45 @@ public class UserController {
     private final UserClient userClient;
 
     @GetMapping
-    public ResponseEntity<Object> findAll() {
+    public Mono<ResponseEntity<Object>> findAll() {
         log.info("Получен запрос GET на получение всех пользователей");
         return userClient.getUsers();
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> findById(@PathVariable Long userId) {
+    public Mono<ResponseEntity<Object>> findById(@PathVariable Long userId) {
         log.info("Получен запрос GET на получение пользователя по id {}", userId);
         return userClient.getUserById(userId);
     }
 
     @ResponseBody
     @PostMapping
-    public ResponseEntity<Object> create(@Valid @RequestBody UserDto userDto) {
+    public Mono<ResponseEntity<Object>> create(@Valid @RequestBody UserDto userDto) {
         log.info("Получен запрос POST на создание пользователя {}", userDto.toString());
         return userClient.create(userDto);
     }
 
+    /**
+     * Тело передается на сервер потоком, не читаясь в память шлюза. Ответ ожидается в потоке запроса:
+     * импорт большого файла дольше таймаута асинхронной обработки (spring.mvc.async.request-timeout).
+     */
+    @ResponseBody
+    @PostMapping("/import")
+    public ResponseEntity<Object> importUsers(@RequestParam(defaultValue = "ndjson") String format,
+                                              InputStream body) {
+        log.info("Получен запрос POST на импорт пользователей, формат {}", format);
+        return userClient.importUsers(format, new InputStreamResource(body)).block();
+    }
+
     @ResponseBody
     @PatchMapping("/{userId}")
-    public ResponseEntity<Object> update(@RequestBody UserDto userDto, @PathVariable Long userId) {
+    public Mono<ResponseEntity<Object>> update(@RequestBody UserDto userDto, @PathVariable Long userId) {
         log.info("Получен запрос Patch на обновление пользователя {}", userDto.toString());
         return userClient.update(userDto, userId);
     }
 
     @DeleteMapping("/{userId}")
-    public ResponseEntity<Object> delete(@PathVariable Long userId) {
+    public Mono<ResponseEntity<Object>> delete(@PathVariable Long userId) {
         log.info("Получен запрос DELETE для пользователя по id {}", userId);
         return userClient.delete(userId);
     }
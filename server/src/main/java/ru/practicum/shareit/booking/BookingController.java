@@ -1,12 +1,23 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.pagination.KeysetCursor;
 
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @Slf4j
@@ -16,11 +27,14 @@ import java.util.List;
 public class BookingController {
 
     private static final String OWNER = "X-Sharer-User-Id";
+    private static final String NDJSON = "application/x-ndjson";
     private final BookingService service;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public BookingController(BookingService bookingService) {
+    public BookingController(BookingService bookingService, ObjectMapper objectMapper) {
         this.service = bookingService;
+        this.objectMapper = objectMapper;
     }
 
     @ResponseBody
@@ -31,6 +45,15 @@ public class BookingController {
         return service.add(bookerId, bookingInputDto);
     }
 
+    @ResponseBody
+    @PostMapping("/batch")
+    public List<BookingBatchResultDto> createAll(@RequestBody List<BookingInputDto> bookingInputDtos,
+                                                 @RequestHeader(OWNER) Long bookerId) {
+        log.info("Получен POST-запрос '/bookings/batch' на создание {} бронирований от пользователя с ID={}",
+                bookingInputDtos.size(), bookerId);
+        return service.addAll(bookerId, bookingInputDtos);
+    }
+
     @ResponseBody
     @PatchMapping("/{bookingId}")
     public BookingDto update(@RequestHeader(OWNER) Long userId,
@@ -40,6 +63,15 @@ public class BookingController {
         return service.approve(userId, bookingId, approved);
     }
 
+    @ResponseBody
+    @PatchMapping("/owner/decisions")
+    public List<BookingDecisionResultDto> decideAll(@RequestBody List<BookingDecisionDto> decisions,
+                                                    @RequestHeader(OWNER) Long userId) {
+        log.info("Получен PATCH-запрос '/bookings/owner/decisions' на {} решений владельца с ID={}",
+                decisions.size(), userId);
+        return service.decideAll(userId, decisions);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingDto getBookingById(@PathVariable Long bookingId, @RequestHeader(OWNER) Long userId) {
         log.info("Получен GET-запрос '/bookings' на получение бронирования с ID={}", bookingId);
@@ -65,4 +97,57 @@ public class BookingController {
                 "вещей пользователя с ID={} с параметром STATE={}", userId, state);
         return service.getAllBookingsForOwner(userId, state, from, size);
     }
+
+    @GetMapping(params = "cursor")
+    public ResponseEntity<List<BookingDto>> getBookingsByCursor(
+            @RequestParam(name = "state", defaultValue = "ALL") String state,
+            @RequestHeader(OWNER) Long userId,
+            @RequestParam(value = "cursor") String cursor,
+            @RequestParam(value = "size", defaultValue = "20") Integer size) {
+        log.info("Получен GET-запрос '/bookings' на получение бронирований пользователя с ID={} " +
+                "с параметром STATE={} по курсору", userId, state);
+        return toSliceResponse(service.getBookingsSlice(userId, state, cursor, size));
+    }
+
+    @GetMapping(value = "/owner", params = "cursor")
+    public ResponseEntity<List<BookingDto>> getBookingsOwnerByCursor(
+            @RequestParam(name = "state", defaultValue = "ALL") String state,
+            @RequestHeader(OWNER) Long userId,
+            @RequestParam(value = "cursor") String cursor,
+            @RequestParam(value = "size", defaultValue = "20") Integer size) {
+        log.info("Получен GET-запрос '/bookings/owner' на получение бронирований вещей пользователя с ID={} " +
+                "с параметром STATE={} по курсору", userId, state);
+        return toSliceResponse(service.getBookingsSliceForOwner(userId, state, cursor, size));
+    }
+
+    /**
+     * Выгрузка всей истории бронирований вещей владельца в NDJSON: по одному BookingDto в строке,
+     * строки пишутся в ответ по мере чтения из базы.
+     */
+    @GetMapping("/owner/export")
+    public void exportBookingsOwner(@RequestHeader(OWNER) Long userId, HttpServletResponse response)
+            throws IOException {
+        log.info("Получен GET-запрос '/bookings/owner/export' на выгрузку бронирований вещей пользователя с ID={}",
+                userId);
+        response.setContentType(NDJSON);
+        // ответ фиксируется при первой записи, поэтому ошибка проверки пользователя еще вернется обычным статусом
+        ServletOutputStream output = response.getOutputStream();
+        service.exportForOwner(userId, booking -> {
+            try {
+                output.write(objectMapper.writeValueAsBytes(booking));
+                output.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private ResponseEntity<List<BookingDto>> toSliceResponse(Slice<BookingDto> bookings) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (bookings.hasNext()) {
+            BookingDto last = bookings.getContent().get(bookings.getNumberOfElements() - 1);
+            response.header(KeysetCursor.NEXT_CURSOR_HEADER, new KeysetCursor(last.getStart(), last.getId()).encode());
+        }
+        return response.body(bookings.getContent());
+    }
 }
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.booking;
+
+import java.time.LocalDateTime;
+
+/**
+ * Положение бронирования во времени: до начала, идет, закончилось. Хранится в bookings.phase,
+ * чтобы списки CURRENT, FUTURE и PAST выбирались по равенству, а не по диапазону дат.
+ */
+public enum BookingPhase {
+    FUTURE,
+    CURRENT,
+    PAST;
+
+    public static BookingPhase at(LocalDateTime start, LocalDateTime end, LocalDateTime now) {
+        if (!end.isAfter(now)) {
+            return PAST;
+        }
+        if (!start.isAfter(now)) {
+            return CURRENT;
+        }
+        return FUTURE;
+    }
+}
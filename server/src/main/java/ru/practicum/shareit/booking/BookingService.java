@@ -1,19 +1,34 @@
 package ru.practicum.shareit.booking;
 
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookingService {
     BookingDto add(Long userId, BookingInputDto bookingRequestDto);
 
+    List<BookingBatchResultDto> addAll(Long userId, List<BookingInputDto> bookingRequestDtos);
+
     BookingDto approve(Long userId, Long bookingId, Boolean isApproved);
 
+    List<BookingDecisionResultDto> decideAll(Long userId, List<BookingDecisionDto> decisions);
+
     BookingDto getBookingById(Long userId, Long bookingId);
 
     List<BookingDto> getAllBookings(Long userId, String state, Integer from, Integer size);
 
     List<BookingDto> getAllBookingsForOwner(Long userId, String state, Integer from, Integer size);
 
+    Slice<BookingDto> getBookingsSlice(Long userId, String state, String cursor, Integer size);
+
+    Slice<BookingDto> getBookingsSliceForOwner(Long userId, String state, String cursor, Integer size);
+
+    long exportForOwner(Long userId, Consumer<BookingDto> consumer);
+
 }
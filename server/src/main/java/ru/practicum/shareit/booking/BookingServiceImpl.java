@@ -1,29 +1,47 @@
 package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.booking.availability.BookingIntervalIndex;
+import ru.practicum.shareit.booking.availability.Reservation;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.phase.BookingPhaseQueue;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.*;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.summary.ItemBookingSummaryService;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.registry.UserIdRegistry;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import javax.transaction.Transactional;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -32,29 +50,139 @@ public class BookingServiceImpl implements BookingService {
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
     private final BookingRepository bookingRepository;
-
+    private final BookingIntervalIndex intervalIndex;
+    private final UserIdRegistry userIds;
+    private final ItemBookingSummaryService summaryService;
+    private final BookingStateMachine stateMachine;
+    private final BookingPhaseQueue phaseQueue;
 
     @Autowired
-    public BookingServiceImpl(UserRepository userRepository, ItemRepository itemRepository, BookingRepository bookingRepository) {
+    public BookingServiceImpl(UserRepository userRepository, ItemRepository itemRepository,
+                              BookingRepository bookingRepository, BookingIntervalIndex intervalIndex,
+                              UserIdRegistry userIds, ItemBookingSummaryService summaryService,
+                              BookingStateMachine stateMachine, BookingPhaseQueue phaseQueue) {
         this.userRepository = userRepository;
         this.itemRepository = itemRepository;
         this.bookingRepository = bookingRepository;
+        this.intervalIndex = intervalIndex;
+        this.userIds = userIds;
+        this.summaryService = summaryService;
+        this.stateMachine = stateMachine;
+        this.phaseQueue = phaseQueue;
     }
 
     @Override
     @Transactional
     public BookingDto add(Long userId, BookingInputDto bookingInputDto) {
+        checkDates(bookingInputDto);
+
+        Booking booking = BookingMapper.toBooking(bookingInputDto);
+        booking.setItem(getItem(bookingInputDto.getItemId()));
+        booking.setBooker(getUser(userId));
+        checkBookable(booking, userId);
+
+        summaryService.lockItem(booking.getItem().getId());
+        Reservation reservation = reserve(booking);
+        try {
+            Booking saved = bookingRepository.save(booking);
+            reservation.setBookingId(saved.getId());
+            intervalIndex.releaseOnRollback(reservation);
+            phaseQueue.scheduleAfterCommit(saved.getId(), saved.getStart(), saved.getEnd());
+            summaryService.refresh(saved.getItem().getId());
+            BookingDto bookingDto = BookingMapper.toBookingDto(saved);
+            log.info("Добавлено новое бронирование {}", bookingDto);
+            return bookingDto;
+        } catch (RuntimeException e) {
+            intervalIndex.release(reservation);
+            throw e;
+        }
+    }
+
+    /**
+     * Создает бронирования пакетом. Ошибочные записи не мешают остальным: для каждой записи возвращается
+     * либо созданное бронирование, либо причина отказа. Вещи загружаются и блокируются одним запросом,
+     * бронирования вставляются JDBC-батчами.
+     */
+    @Override
+    @Transactional
+    public List<BookingBatchResultDto> addAll(Long userId, List<BookingInputDto> bookingInputDtos) {
+        User booker = getUser(userId);
+        Set<Long> itemIds = bookingInputDtos.stream()
+                .map(BookingInputDto::getItemId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        // блокировка строк вещей, как в add: сводка бронирований пересчитывается по очереди
+        Map<Long, Item> items = itemIds.isEmpty() ? Map.of() : itemRepository.findAllByIdForUpdate(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        BookingBatchResultDto[] results = new BookingBatchResultDto[bookingInputDtos.size()];
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        List<Booking> accepted = new ArrayList<>();
+        List<Reservation> reservations = new ArrayList<>();
+        for (int i = 0; i < bookingInputDtos.size(); i++) {
+            BookingInputDto bookingInputDto = bookingInputDtos.get(i);
+            try {
+                checkBatchEntry(bookingInputDto);
+                Item item = items.get(bookingInputDto.getItemId());
+                if (item == null) {
+                    throw new ItemNotFoundException("Вещь не найдена");
+                }
+                Booking booking = BookingMapper.toBooking(bookingInputDto);
+                booking.setItem(item);
+                booking.setBooker(booker);
+                checkBookable(booking, userId);
+                reservations.add(reserve(booking));
+                accepted.add(booking);
+                acceptedIndexes.add(i);
+            } catch (IllegalArgumentException e) {
+                results[i] = BookingBatchResultDto.failed(i, e.getMessage());
+            }
+        }
+
+        try {
+            List<Booking> saved = bookingRepository.saveAll(accepted);
+            for (int j = 0; j < saved.size(); j++) {
+                Booking booking = saved.get(j);
+                Reservation reservation = reservations.get(j);
+                reservation.setBookingId(booking.getId());
+                intervalIndex.releaseOnRollback(reservation);
+                phaseQueue.scheduleAfterCommit(booking.getId(), booking.getStart(), booking.getEnd());
+                int index = acceptedIndexes.get(j);
+                results[index] = BookingBatchResultDto.created(index, BookingMapper.toBookingDto(booking));
+            }
+        } catch (RuntimeException e) {
+            reservations.forEach(intervalIndex::release);
+            throw e;
+        }
+        summaryService.refresh(accepted.stream()
+                .map(booking -> booking.getItem().getId())
+                .collect(Collectors.toSet()), LocalDateTime.now());
+        log.info("Пакетное бронирование пользователем {}: создано {} из {}", userId, accepted.size(),
+                bookingInputDtos.size());
+        return Arrays.asList(results);
+    }
+
+    private void checkBatchEntry(BookingInputDto bookingInputDto) {
+        if (bookingInputDto.getItemId() == null || bookingInputDto.getStart() == null
+                || bookingInputDto.getEnd() == null) {
+            throw new ValidationException("Не указаны вещь или даты бронирования");
+        }
+        if (bookingInputDto.getStart().isBefore(LocalDateTime.now())) {
+            throw new ValidationException("Дата начала бронирования уже прошла");
+        }
+        checkDates(bookingInputDto);
+    }
+
+    private void checkDates(BookingInputDto bookingInputDto) {
         if (bookingInputDto.getStart().equals(bookingInputDto.getEnd()) ||
                 bookingInputDto.getStart().isAfter(bookingInputDto.getEnd())) {
             log.error("Ошибка в выборе даты бронирования, дата старта {}, дата окончания {}",
                     bookingInputDto.getStart(), bookingInputDto.getEnd());
             throw new ValidationException("Бронирование недоступно, ошибка в выборе даты бронирования");
         }
+    }
 
-        Booking booking = BookingMapper.toBooking(bookingInputDto);
-        booking.setItem(getItem(bookingInputDto.getItemId()));
-        booking.setBooker(getUser(userId));
-
+    private void checkBookable(Booking booking, Long userId) {
         if (userId.equals(booking.getItem().getOwner().getId())) {
             log.warn("Пользователь {} является владельцем вещи {} и не может ее забронировать",
                     userId, booking.getItem());
@@ -65,37 +193,105 @@ public class BookingServiceImpl implements BookingService {
             log.warn("Вещь {} недоступна для бронирования", booking.getItem());
             throw new ValidationException("Вещь недоступна для бронирования");
         }
+    }
 
-        BookingDto bookingDto = BookingMapper.toBookingDto(bookingRepository.save(booking));
-        log.info("Добавлено новое бронирование {}", bookingDto);
-        return bookingDto;
+    private Reservation reserve(Booking booking) {
+        return intervalIndex.tryReserve(booking.getItem().getId(), booking.getStart(), booking.getEnd())
+                .orElseThrow(() -> {
+                    log.warn("Вещь {} уже забронирована с {} по {}", booking.getItem().getId(),
+                            booking.getStart(), booking.getEnd());
+                    return new ValidationException("Вещь уже забронирована на выбранные даты");
+                });
     }
 
+    /**
+     * Статус меняется условным UPDATE через BookingStateMachine, без блокировки вещи:
+     * из одновременных решений по одному бронированию применяется ровно одно.
+     */
     @Override
     public BookingDto approve(Long userId, Long bookingId, Boolean approved) {
         Booking booking = getBooking(bookingId, userId);
-        if (!booking.getStatus().equals(Status.WAITING)) {
+        Status target;
+        if (!Objects.equals(booking.getBooker().getId(), userId)) {
+            target = approved ? Status.APPROVED : Status.REJECTED;
+        } else if (!approved) {
+            target = Status.CANCELED;
+        } else {
+            throw new BookingNotFoundException("Подтвердить бронирование может только владелец вещи");
+        }
+        if (!booking.getStatus().canTransitionTo(target)) {
             throw new ValidationException("Недоступно, статус уже был изменен");
         }
-        if (!Objects.equals(booking.getBooker().getId(), userId)) {
-            if (approved) {
-                booking.setStatus(Status.APPROVED);
+        stateMachine.transition(booking, target);
+        if (target != Status.APPROVED) {
+            intervalIndex.removeAfterCommit(booking.getItem().getId(), booking.getId());
+        }
+        booking.setStatus(target);
+        BookingDto bookingDto = BookingMapper.toBookingDto(booking);
+        log.info("Статус бронирования изменился {}", bookingDto);
+        return bookingDto;
+    }
+
+    /**
+     * Решения владельца по нескольким бронированиям. Бронирования и владельцы их вещей читаются
+     * одним запросом, статусы меняются одним условным UPDATE на каждый итоговый статус.
+     * Ошибочные решения не мешают остальным: для каждого возвращается новый статус или причина отказа.
+     */
+    @Override
+    public List<BookingDecisionResultDto> decideAll(Long userId, List<BookingDecisionDto> decisions) {
+        userIds.requireStored(userId);
+        Set<Long> bookingIds = decisions.stream()
+                .map(BookingDecisionDto::getBookingId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, BookingRepository.DecisionTarget> bookings = bookingIds.isEmpty() ? Map.of()
+                : bookingRepository.findDecisionTargets(bookingIds).stream()
+                .collect(Collectors.toMap(BookingRepository.DecisionTarget::getId, Function.identity()));
+
+        BookingDecisionResultDto[] results = new BookingDecisionResultDto[decisions.size()];
+        Map<Long, Status> targets = new HashMap<>();
+        Set<Long> itemIds = new HashSet<>();
+        for (int i = 0; i < decisions.size(); i++) {
+            BookingDecisionDto decision = decisions.get(i);
+            Long bookingId = decision.getBookingId();
+            BookingRepository.DecisionTarget booking = bookings.get(bookingId);
+            if (bookingId == null || decision.getApproved() == null) {
+                results[i] = BookingDecisionResultDto.failed(bookingId, "Не указано бронирование или решение");
+            } else if (targets.containsKey(bookingId)) {
+                results[i] = BookingDecisionResultDto.failed(bookingId, "Решение по бронированию уже указано");
+            } else if (booking == null || !Objects.equals(booking.getOwnerId(), userId)) {
+                results[i] = BookingDecisionResultDto.failed(bookingId,
+                        "Подтвердить бронирование может только владелец вещи");
+            } else if (booking.getStatus() != Status.WAITING) {
+                results[i] = BookingDecisionResultDto.failed(bookingId, "Недоступно, статус уже был изменен");
             } else {
-                booking.setStatus(Status.REJECTED);
+                targets.put(bookingId, decision.getApproved() ? Status.APPROVED : Status.REJECTED);
+                itemIds.add(booking.getItemId());
             }
-        } else {
-            if (!approved) {
-                booking.setStatus(Status.CANCELED);
-            } else {
-                throw new BookingNotFoundException("Подтвердить бронирование может только владелец вещи");
+        }
+
+        Set<Long> applied = targets.isEmpty() ? Set.of() : stateMachine.transitionAll(targets, itemIds);
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            Long bookingId = decisions.get(i).getBookingId();
+            Status target = targets.get(bookingId);
+            if (!applied.contains(bookingId)) {
+                results[i] = BookingDecisionResultDto.failed(bookingId, "Недоступно, статус уже был изменен");
+                continue;
+            }
+            if (target == Status.REJECTED) {
+                intervalIndex.removeAfterCommit(bookings.get(bookingId).getItemId(), bookingId);
             }
+            results[i] = BookingDecisionResultDto.applied(bookingId, target);
         }
-        BookingDto bookingDto = BookingMapper.toBookingDto(bookingRepository.save(booking));
-        log.info("Статус бронирования изменился {}", bookingDto);
-        return bookingDto;
+        log.info("Пакетное решение владельцем {}: изменено {} из {}", userId, applied.size(), decisions.size());
+        return Arrays.asList(results);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public BookingDto getBookingById(Long userId, Long bookingId) {
         BookingDto bookingDto = BookingMapper.toBookingDto(getBooking(bookingId, userId));
         log.info("Запрошена информация о бронировании по id {}, пользователем {}",
@@ -104,86 +300,79 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<BookingDto> getAllBookings(Long userId, String state, Integer from, Integer size) {
-        LocalDateTime time = LocalDateTime.now();
-        getUser(userId);
-        Page<Booking> bookings;
-        Pageable pageable = getPageable(from, size);
-        switch (state) {
-            case "ALL":
-                bookings = bookingRepository.findByBookerId(userId, pageable);
-                break;
-            case "CURRENT":
-                bookings = bookingRepository.findByBookerIdAndStartIsBeforeAndEndIsAfter(userId,
-                        time, time, pageable);
-                break;
-            case "FUTURE":
-                bookings = bookingRepository.findByBookerIdAndStartIsAfter(userId, time, pageable);
-                break;
-            case "PAST":
-                bookings = bookingRepository.findByBookerIdAndEndIsBefore(userId, time, pageable);
-                break;
-            case "WAITING":
-                bookings = bookingRepository.findByBookerIdAndStatus(userId, Status.WAITING, pageable);
-                break;
-            case "REJECTED":
-                bookings = bookingRepository.findByBookerIdAndStatus(userId, Status.REJECTED, pageable);
-                break;
-            default:
-                throw new UnknownStatusException("Unknown state: " + state);
-        }
-
-        List<BookingDto> bookingDto = getBookingsDto(bookings);
+        List<BookingDto> bookingDto = getPage(BookingRole.BOOKER, userId, state, from, size);
         log.info("Результат на запрос всех бронирований пользователем {} {}", userId, bookingDto);
         return bookingDto;
     }
 
-    private Pageable getPageable(Integer pageNumber, Integer pageSize) {
-        Sort sortDesc = Sort.by(Sort.Direction.DESC, "start");
-        return PageRequest.of(pageNumber / pageSize, pageSize, sortDesc);
-    }
-
-    private List<BookingDto> getBookingsDto(Page<Booking> bookings) {
-        return bookings
+    /**
+     * Страница from / size списка: смещение округляется вниз до начала страницы.
+     */
+    private List<BookingDto> getPage(BookingRole role, Long userId, String state, Integer from, Integer size) {
+        userIds.requireExists(userId);
+        BookingState bookingState = BookingState.from(state)
+                .orElseThrow(() -> new UnknownStatusException("Unknown state: " + state));
+        int offset = from / size * size;
+        return bookingRepository.findPage(role, userId, bookingState, offset, size).stream()
                 .map(BookingMapper::toBookingDto)
-                .toList();
+                .collect(Collectors.toList());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<BookingDto> getAllBookingsForOwner(Long userId, String state, Integer from, Integer size) {
-        LocalDateTime time = LocalDateTime.now();
-        getUser(userId);
-        Page<Booking> bookings;
-        Pageable pageable = getPageable(from, size);
-        switch (state) {
-            case "ALL":
-                bookings = bookingRepository.findByItem_Owner_Id(userId, pageable);
-                break;
-            case "CURRENT":
-                bookings = bookingRepository.findByItem_Owner_IdAndStartIsBeforeAndEndIsAfter(
-                        userId, time, time, pageable);
-                break;
-            case "FUTURE":
-                bookings = bookingRepository.findByItem_Owner_IdAndStartIsAfter(userId, time, pageable);
-                break;
-            case "PAST":
-                bookings = bookingRepository.findByItem_Owner_IdAndEndIsBefore(userId, time, pageable);
-                break;
-            case "WAITING":
-                bookings = bookingRepository.findByItem_Owner_IdAndStatus(userId, Status.WAITING, pageable);
-                break;
-            case "REJECTED":
-                bookings = bookingRepository.findByItem_Owner_IdAndStatus(userId, Status.REJECTED, pageable);
-                break;
-            default:
-                throw new UnknownStatusException("Unknown state: " + state);
-        }
-
-        List<BookingDto> bookingDto = getBookingsDto(bookings);
+        List<BookingDto> bookingDto = getPage(BookingRole.OWNER, userId, state, from, size);
         log.info("Результат на запрос всех бронирований вещей владельцем {} {}", userId, bookingDto);
         return bookingDto;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<BookingDto> getBookingsSlice(Long userId, String state, String cursor, Integer size) {
+        Slice<BookingDto> bookings = getSlice(BookingRole.BOOKER, userId, state, cursor, size);
+        log.info("Результат на запрос бронирований пользователем {} по курсору {}", userId, cursor);
+        return bookings;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<BookingDto> getBookingsSliceForOwner(Long userId, String state, String cursor, Integer size) {
+        Slice<BookingDto> bookings = getSlice(BookingRole.OWNER, userId, state, cursor, size);
+        log.info("Результат на запрос бронирований вещей владельцем {} по курсору {}", userId, cursor);
+        return bookings;
+    }
+
+    /**
+     * Вся история бронирований вещей владельца одним проходом по курсору базы: строки читаются
+     * порциями по BookingRepository.EXPORT_FETCH_SIZE и сразу передаются consumer, не накапливаясь в памяти.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long exportForOwner(Long userId, Consumer<BookingDto> consumer) {
+        userIds.requireExists(userId);
+        long count = 0;
+        try (Stream<BookingView> bookings = bookingRepository.streamByOwnerId(userId)) {
+            Iterator<BookingView> iterator = bookings.iterator();
+            while (iterator.hasNext()) {
+                consumer.accept(BookingMapper.toBookingDto(iterator.next()));
+                count++;
+            }
+        }
+        log.info("Выгружено {} бронирований вещей владельца {}", count, userId);
+        return count;
+    }
+
+    private Slice<BookingDto> getSlice(BookingRole role, Long userId, String state, String cursor, Integer size) {
+        BookingState bookingState = BookingState.from(state)
+                .orElseThrow(() -> new UnknownStatusException("Unknown state: " + state));
+        KeysetCursor.requirePageSize(size);
+        userIds.requireExists(userId);
+        return bookingRepository.findSlice(role, userId, bookingState,
+                        KeysetCursor.decode(cursor).orElse(null), size)
+                .map(BookingMapper::toBookingDto);
+    }
 
     private Booking getBooking(Long bookingId, long userId) {
         Booking booking = bookingRepository.findById(bookingId)
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.booking;
+
+import java.util.Optional;
+
+/**
+ * Фильтр списков бронирований. Состояния CURRENT, FUTURE и PAST задаются фазой бронирования,
+ * REJECTED, WAITING, APPROVED и CANCELED - статусом, ALL ничем не ограничено. Новое состояние
+ * добавляется только здесь: запрос для него строит BookingRepositoryCustomImpl.
+ */
+public enum BookingState {
+    ALL(null, null),
+    CURRENT(null, BookingPhase.CURRENT),
+    FUTURE(null, BookingPhase.FUTURE),
+    PAST(null, BookingPhase.PAST),
+    REJECTED(Status.REJECTED, null),
+    WAITING(Status.WAITING, null),
+    APPROVED(Status.APPROVED, null),
+    CANCELED(Status.CANCELED, null);
+
+    private final Status status;
+    private final BookingPhase phase;
+
+    BookingState(Status status, BookingPhase phase) {
+        this.status = status;
+        this.phase = phase;
+    }
+
+    /**
+     * Статус, которым ограничено состояние, или null, если состояние не зависит от статуса.
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Фаза, которой ограничено состояние, или null, если состояние не зависит от времени.
+     */
+    public BookingPhase getPhase() {
+        return phase;
+    }
+
+    public static Optional<BookingState> from(String stringState) {
+        for (BookingState state : values()) {
+            if (state.name().equalsIgnoreCase(stringState)) {
+                return Optional.of(state);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,129 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.summary.ItemBookingSummaryService;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Переходы бронирования между статусами. Переход - один условный UPDATE ... WHERE status = :from:
+ * из нескольких одновременных запросов строку меняет только первый, остальные получают 0 строк
+ * и ValidationException, при этом ни вещь, ни бронирование заранее не блокируются.
+ * Транзакция повторяется не больше maxAttempts раз, если база прервала ее из-за конкуренции
+ * за блокировки (взаимоблокировка, таймаут ожидания).
+ */
+@Slf4j
+@Component
+public class BookingStateMachine {
+    private final BookingRepository bookingRepository;
+    private final ItemBookingSummaryService summaryService;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+
+    public BookingStateMachine(BookingRepository bookingRepository, ItemBookingSummaryService summaryService,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${shareit.booking.transition-attempts:3}") int maxAttempts) {
+        this.bookingRepository = bookingRepository;
+        this.summaryService = summaryService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Переводит бронирование из его текущего статуса в target. Переданный объект не изменяется.
+     *
+     * @throws ValidationException если переход не разрешен или статус уже изменил другой запрос
+     */
+    public void transition(Booking booking, Status target) {
+        Status from = booking.getStatus();
+        if (!from.canTransitionTo(target)) {
+            throw new ValidationException("Недоступно, статус уже был изменен");
+        }
+        Boolean applied = withRetry(() -> transactionTemplate.execute(status -> apply(booking, from, target)));
+        if (!Boolean.TRUE.equals(applied)) {
+            throw new ValidationException("Недоступно, статус уже был изменен");
+        }
+    }
+
+    /**
+     * Переводит ожидающие решения бронирования в указанные статусы: по одному условному UPDATE
+     * на каждый целевой статус, все в одной транзакции.
+     *
+     * @param targets целевой статус по id бронирования, каждый должен быть разрешен из WAITING
+     * @param itemIds вещи этих бронирований, их сводка помечается устаревшей
+     * @return id бронирований, которые находятся в целевом статусе после перехода
+     */
+    public Set<Long> transitionAll(Map<Long, Status> targets, Collection<Long> itemIds) {
+        Map<Status, List<Long>> byTarget = new EnumMap<>(Status.class);
+        targets.forEach((bookingId, target) -> {
+            if (!Status.WAITING.canTransitionTo(target)) {
+                throw new IllegalArgumentException("Недопустимый переход WAITING -> " + target);
+            }
+            byTarget.computeIfAbsent(target, status -> new ArrayList<>()).add(bookingId);
+        });
+        return withRetry(() -> transactionTemplate.execute(status -> applyAll(byTarget, itemIds)));
+    }
+
+    private <T> T withRetry(Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                log.warn("Смена статуса бронирований прервана базой, попытка {} из {}", attempt, maxAttempts);
+                pause(attempt);
+            }
+        }
+    }
+
+    private boolean apply(Booking booking, Status from, Status target) {
+        if (bookingRepository.updateStatus(booking.getId(), from, target) == 0) {
+            return false;
+        }
+        summaryService.invalidate(booking.getItem().getId());
+        return true;
+    }
+
+    private Set<Long> applyAll(Map<Status, List<Long>> byTarget, Collection<Long> itemIds) {
+        Set<Long> applied = new HashSet<>();
+        byTarget.forEach((target, bookingIds) -> {
+            int updated = bookingRepository.updateStatuses(bookingIds, Status.WAITING, target);
+            if (updated == bookingIds.size()) {
+                applied.addAll(bookingIds);
+                return;
+            }
+            // часть бронирований успел изменить другой запрос: в целевом статусе только те, что дошли до него
+            bookingRepository.findDecisionTargets(bookingIds).stream()
+                    .filter(booking -> booking.getStatus() == target)
+                    .forEach(booking -> applied.add(booking.getId()));
+        });
+        summaryService.invalidate(itemIds);
+        return applied;
+    }
+
+    private void pause(int attempt) {
+        try {
+            Thread.sleep(10L * attempt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Повтор перехода бронирования прерван", e);
+        }
+    }
+}
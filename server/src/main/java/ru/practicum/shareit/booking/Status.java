@@ -1,8 +1,26 @@
 package ru.practicum.shareit.booking;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum Status {
     WAITING,  // новое бронирование, ожидает одобрения,
     APPROVED, // бронирование подтверждено владельцем
     REJECTED, // бронирование отклонено владельцем
-    CANCELED  // бронирование отменено создателем
+    CANCELED; // бронирование отменено создателем
+
+    /**
+     * Статусы, в которые бронирование может перейти из текущего. Решение принимается
+     * только по ожидающему бронированию, остальные статусы конечные.
+     */
+    public Set<Status> allowedTransitions() {
+        if (this == WAITING) {
+            return EnumSet.of(APPROVED, REJECTED, CANCELED);
+        }
+        return EnumSet.noneOf(Status.class);
+    }
+
+    public boolean canTransitionTo(Status target) {
+        return allowedTransitions().contains(target);
+    }
 }
@@ -0,0 +1,92 @@
+package ru.practicum.shareit.booking.availability;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Индекс занятости вещей по действующим (WAITING и APPROVED) бронированиям.
+ * Хранит только текущие и будущие интервалы: завершившиеся удаляются при очередной записи.
+ */
+@Slf4j
+@Component
+public class BookingIntervalIndex {
+    private final Map<Long, ItemTimeline> timelines = new ConcurrentHashMap<>();
+
+    public boolean isAvailable(Long itemId, LocalDateTime from, LocalDateTime to) {
+        ItemTimeline timeline = timelines.get(itemId);
+        return timeline == null || !timeline.overlaps(from, to);
+    }
+
+    /**
+     * Атомарно проверяет, что интервал свободен, и занимает его.
+     */
+    public Optional<Reservation> tryReserve(Long itemId, LocalDateTime start, LocalDateTime end) {
+        ItemTimeline timeline = timelines.computeIfAbsent(itemId, id -> new ItemTimeline());
+        timeline.removeIf(reservation -> !reservation.getEnd().isAfter(LocalDateTime.now()));
+        Reservation reservation = new Reservation(itemId, null, start, end);
+        return timeline.tryAdd(reservation) ? Optional.of(reservation) : Optional.empty();
+    }
+
+    public void release(Reservation reservation) {
+        ItemTimeline timeline = timelines.get(reservation.getItemId());
+        if (timeline != null) {
+            timeline.removeIf(current -> current == reservation);
+        }
+    }
+
+    /**
+     * Освобождает интервал, если текущая транзакция будет откачена.
+     */
+    public void releaseOnRollback(Reservation reservation) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        release(reservation);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Удаляет интервал бронирования после фиксации текущей транзакции или сразу, если транзакции нет.
+     */
+    public void removeAfterCommit(Long itemId, Long bookingId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remove(itemId, bookingId);
+                }
+            });
+        } else {
+            remove(itemId, bookingId);
+        }
+    }
+
+    public void remove(Long itemId, Long bookingId) {
+        ItemTimeline timeline = timelines.get(itemId);
+        if (timeline != null) {
+            timeline.removeIf(reservation -> Objects.equals(reservation.getBookingId(), bookingId));
+        }
+    }
+
+    public void rebuild(Collection<Reservation> reservations) {
+        timelines.clear();
+        for (Reservation reservation : reservations) {
+            timelines.computeIfAbsent(reservation.getItemId(), id -> new ItemTimeline()).add(reservation);
+        }
+        log.info("Индекс занятости построен по {} бронированиям", reservations.size());
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.booking.availability;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Component
+public class BookingIntervalIndexLoader {
+    private final BookingRepository bookingRepository;
+    private final BookingIntervalIndex intervalIndex;
+
+    public BookingIntervalIndexLoader(BookingRepository bookingRepository, BookingIntervalIndex intervalIndex) {
+        this.bookingRepository = bookingRepository;
+        this.intervalIndex = intervalIndex;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        intervalIndex.rebuild(bookingRepository.findReservations(List.of(Status.WAITING, Status.APPROVED),
+                LocalDateTime.now()));
+    }
+}
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.booking.availability;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Интервалы одной вещи, отсортированные по началу, и префиксный максимум их окончаний.
+ * Интервал [from, to) пересекается с занятыми, если среди интервалов, начавшихся раньше to,
+ * хотя бы один заканчивается позже from, то есть если префиксный максимум окончаний больше from.
+ */
+class ItemTimeline {
+    private final List<Reservation> reservations = new ArrayList<>();
+    private final List<LocalDateTime> maxEnds = new ArrayList<>();
+
+    synchronized boolean overlaps(LocalDateTime from, LocalDateTime to) {
+        int last = lastStartingBefore(to);
+        return last >= 0 && maxEnds.get(last).isAfter(from);
+    }
+
+    synchronized boolean tryAdd(Reservation reservation) {
+        if (overlaps(reservation.getStart(), reservation.getEnd())) {
+            return false;
+        }
+        add(reservation);
+        return true;
+    }
+
+    synchronized void add(Reservation reservation) {
+        int position = lastStartingBefore(reservation.getStart()) + 1;
+        reservations.add(position, reservation);
+        recomputeFrom(position);
+    }
+
+    synchronized void removeIf(Predicate<Reservation> filter) {
+        int first = -1;
+        for (int i = 0; i < reservations.size(); i++) {
+            if (filter.test(reservations.get(i))) {
+                first = i;
+                break;
+            }
+        }
+        if (first < 0) {
+            return;
+        }
+        reservations.removeIf(filter);
+        recomputeFrom(first);
+    }
+
+    synchronized int size() {
+        return reservations.size();
+    }
+
+    private int lastStartingBefore(LocalDateTime time) {
+        int low = 0;
+        int high = reservations.size() - 1;
+        int result = -1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (reservations.get(middle).getStart().isBefore(time)) {
+                result = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return result;
+    }
+
+    private void recomputeFrom(int position) {
+        while (maxEnds.size() > reservations.size()) {
+            maxEnds.remove(maxEnds.size() - 1);
+        }
+        for (int i = position; i < reservations.size(); i++) {
+            LocalDateTime end = reservations.get(i).getEnd();
+            LocalDateTime previous = i == 0 ? null : maxEnds.get(i - 1);
+            LocalDateTime max = previous != null && previous.isAfter(end) ? previous : end;
+            if (i < maxEnds.size()) {
+                maxEnds.set(i, max);
+            } else {
+                maxEnds.add(max);
+            }
+        }
+    }
+}
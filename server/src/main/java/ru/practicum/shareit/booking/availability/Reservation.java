@@ -0,0 +1,27 @@
+package ru.practicum.shareit.booking.availability;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * Занятый интервал [start, end) вещи. До сохранения бронирования bookingId не заполнен.
+ */
+@Getter
+@ToString
+public class Reservation {
+    private final Long itemId;
+    @Setter
+    private volatile Long bookingId;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+
+    public Reservation(Long itemId, Long bookingId, LocalDateTime start, LocalDateTime end) {
+        this.itemId = itemId;
+        this.bookingId = bookingId;
+        this.start = start;
+        this.end = end;
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Результат одной записи пакетного бронирования: созданное бронирование или причина отказа.
+ * index - позиция записи в запросе.
+ */
+@Data
+@AllArgsConstructor
+public class BookingBatchResultDto {
+    private int index;
+    private BookingDto booking;
+    private String error;
+
+    public static BookingBatchResultDto created(int index, BookingDto booking) {
+        return new BookingBatchResultDto(index, booking, null);
+    }
+
+    public static BookingBatchResultDto failed(int index, String error) {
+        return new BookingBatchResultDto(index, null, error);
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.shareit.booking.Status;
+
+/**
+ * Результат одного решения пакетного запроса: новый статус бронирования или причина отказа.
+ */
+@Data
+@AllArgsConstructor
+public class BookingDecisionResultDto {
+    private Long bookingId;
+    private Status status;
+    private String error;
+
+    public static BookingDecisionResultDto applied(Long bookingId, Status status) {
+        return new BookingDecisionResultDto(bookingId, status, null);
+    }
+
+    public static BookingDecisionResultDto failed(Long bookingId, String error) {
+        return new BookingDecisionResultDto(bookingId, null, error);
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Getter;
+import lombok.ToString;
+import ru.practicum.shareit.booking.Status;
+
+import java.time.LocalDateTime;
+
+/**
+ * Строка списка бронирований: ровно те колонки, из которых собирается BookingDto,
+ * выбранные одним запросом с join вещи, владельца и автора бронирования.
+ */
+@Getter
+@ToString
+public class BookingView {
+    private final Long id;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+    private final Long itemId;
+    private final String itemName;
+    private final String itemDescription;
+    private final Boolean itemAvailable;
+    private final Long itemRequestId;
+    private final Long ownerId;
+    private final String ownerName;
+    private final String ownerEmail;
+    private final Long bookerId;
+    private final String bookerName;
+    private final String bookerEmail;
+    private final Status status;
+
+    public BookingView(Long id, LocalDateTime start, LocalDateTime end,
+                       Long itemId, String itemName, String itemDescription, Boolean itemAvailable,
+                       Long itemRequestId, Long ownerId, String ownerName, String ownerEmail,
+                       Long bookerId, String bookerName, String bookerEmail, Status status) {
+        this.id = id;
+        this.start = start;
+        this.end = end;
+        this.itemId = itemId;
+        this.itemName = itemName;
+        this.itemDescription = itemDescription;
+        this.itemAvailable = itemAvailable;
+        this.itemRequestId = itemRequestId;
+        this.ownerId = ownerId;
+        this.ownerName = ownerName;
+        this.ownerEmail = ownerEmail;
+        this.bookerId = bookerId;
+        this.bookerName = bookerName;
+        this.bookerEmail = bookerEmail;
+        this.status = status;
+    }
+}
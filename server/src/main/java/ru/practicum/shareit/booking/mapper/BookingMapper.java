@@ -6,8 +6,13 @@ import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.summary.SummaryBooking;
+import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
+import ru.practicum.shareit.user.model.User;
 
 @Component
 public class BookingMapper {
@@ -38,6 +43,36 @@ public class BookingMapper {
         }
     }
 
+    public static BookingDto toBookingDto(BookingView view) {
+        return new BookingDto(
+                view.getId(),
+                view.getStart(),
+                view.getEnd(),
+                new ItemDto(
+                        view.getItemId(),
+                        view.getItemName(),
+                        view.getItemDescription(),
+                        view.getItemAvailable(),
+                        new User(view.getOwnerId(), view.getOwnerName(), view.getOwnerEmail()),
+                        view.getItemRequestId()),
+                new UserDto(view.getBookerId(), view.getBookerName(), view.getBookerEmail()),
+                view.getStatus()
+        );
+    }
+
+    public static BookingShortDto toBookingShortDto(SummaryBooking booking) {
+        if (booking != null) {
+            return new BookingShortDto(
+                    booking.getBookingId(),
+                    booking.getBookerId(),
+                    booking.getStart(),
+                    booking.getEnd()
+            );
+        } else {
+            return null;
+        }
+    }
+
     public static BookingShortDto toBookingShortDto(Booking booking) {
         if (booking != null) {
             return new BookingShortDto(
@@ -1,9 +1,11 @@
 package ru.practicum.shareit.booking.model;
 
-import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import ru.practicum.shareit.booking.BookingPhase;
 import ru.practicum.shareit.booking.Status;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
@@ -12,14 +14,22 @@ import javax.persistence.*;
 import java.time.LocalDateTime;
 
 @Data
-@AllArgsConstructor
 @NoArgsConstructor
-@Builder
 @Entity
 @Table(name = "bookings")
 public class Booking {
+    /**
+     * Идентификаторы выдаются из последовательности блоками по 50, поэтому вставки
+     * нескольких бронирований уходят в базу одним JDBC-батчем (с IDENTITY Hibernate вставляет по одной строке).
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "booking_id")
+    @GenericGenerator(name = "booking_id", strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator",
+            parameters = {
+                    @Parameter(name = "sequence_name", value = "bookings_pooled_id_seq"),
+                    @Parameter(name = "increment_size", value = "50"),
+                    @Parameter(name = "optimizer", value = "pooled-lo")
+            })
     @Column(name = "id")
     private Long id;
     @Column(name = "start_date")
@@ -34,4 +44,26 @@ public class Booking {
     private User booker;
     @Enumerated(EnumType.STRING)
     private Status status;
+    /**
+     * Вычисляется по датам при вставке, дальше ее сдвигает только BookingPhaseScheduler.
+     */
+    @Enumerated(EnumType.STRING)
+    private BookingPhase phase;
+
+    @Builder
+    public Booking(Long id, LocalDateTime start, LocalDateTime end, Item item, User booker, Status status) {
+        this.id = id;
+        this.start = start;
+        this.end = end;
+        this.item = item;
+        this.booker = booker;
+        this.status = status;
+    }
+
+    @PrePersist
+    void initPhase() {
+        if (phase == null) {
+            phase = BookingPhase.at(start, end, LocalDateTime.now());
+        }
+    }
 }
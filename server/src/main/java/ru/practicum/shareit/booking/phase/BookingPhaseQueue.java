@@ -0,0 +1,82 @@
+package ru.practicum.shareit.booking.phase;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.BookingPhase;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Предстоящие начала и окончания бронирований в куче по времени: планировщику достаточно
+ * смотреть на вершину, чтобы узнать, пора ли менять фазу. Переходы одного бронирования
+ * хранятся отдельными записями, прошедшие моменты в кучу не попадают.
+ */
+@Component
+public class BookingPhaseQueue {
+    private final PriorityQueue<PhaseChange> changes =
+            new PriorityQueue<>(Comparator.comparing(PhaseChange::getAt));
+
+    /**
+     * Ставит в очередь переходы бронирования, которые наступят после now.
+     */
+    public synchronized void schedule(Long bookingId, LocalDateTime start, LocalDateTime end, LocalDateTime now) {
+        if (start.isAfter(now)) {
+            changes.add(new PhaseChange(start, bookingId, BookingPhase.CURRENT));
+        }
+        if (end.isAfter(now)) {
+            changes.add(new PhaseChange(end, bookingId, BookingPhase.PAST));
+        }
+    }
+
+    /**
+     * Ставит переходы в очередь после фиксации текущей транзакции или сразу, если транзакции нет.
+     */
+    public void scheduleAfterCommit(Long bookingId, LocalDateTime start, LocalDateTime end) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    schedule(bookingId, start, end, LocalDateTime.now());
+                }
+            });
+        } else {
+            schedule(bookingId, start, end, LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Снимает с вершины не больше limit наступивших переходов. Если у бронирования наступили оба
+     * перехода, остается последний: бронирование сразу становится PAST.
+     *
+     * @return фаза, в которую нужно перевести каждое бронирование
+     */
+    public synchronized Map<Long, BookingPhase> pollDue(LocalDateTime now, int limit) {
+        Map<Long, BookingPhase> due = new HashMap<>();
+        while (due.size() < limit && !changes.isEmpty() && !changes.peek().getAt().isAfter(now)) {
+            PhaseChange change = changes.poll();
+            due.merge(change.getBookingId(), change.getPhase(),
+                    (current, next) -> current.compareTo(next) >= 0 ? current : next);
+        }
+        return due;
+    }
+
+    /**
+     * Возвращает в очередь переходы, которые не удалось записать: они будут сняты при следующем проходе.
+     */
+    public synchronized void retry(Map<Long, BookingPhase> phases, LocalDateTime at) {
+        phases.forEach((bookingId, phase) -> changes.add(new PhaseChange(at, bookingId, phase)));
+    }
+
+    public synchronized void clear() {
+        changes.clear();
+    }
+
+    public synchronized int size() {
+        return changes.size();
+    }
+}
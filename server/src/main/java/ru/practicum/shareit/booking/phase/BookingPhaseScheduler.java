@@ -0,0 +1,121 @@
+package ru.practicum.shareit.booking.phase;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingPhase;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Сдвигает bookings.phase вперед по мере наступления начала и окончания бронирований.
+ * Моменты переходов берутся из BookingPhaseQueue, поэтому проход без наступивших переходов
+ * не обращается к базе. Списки CURRENT и PAST отстают от часов не больше чем на phase-delay-ms.
+ * Очередь знает только бронирования, записанные этим экземпляром или прочитанные при загрузке,
+ * поэтому переходы бронирований других экземпляров догоняются запросом к базе
+ * каждые phase-catch-up-delay-ms.
+ */
+@Slf4j
+@Component
+public class BookingPhaseScheduler {
+    private static final List<BookingPhase> ACTIVE = List.of(BookingPhase.FUTURE, BookingPhase.CURRENT);
+
+    private final BookingRepository bookingRepository;
+    private final BookingPhaseQueue phaseQueue;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public BookingPhaseScheduler(BookingRepository bookingRepository, BookingPhaseQueue phaseQueue,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${shareit.booking.phase-batch-size:1000}") int batchSize) {
+        this.bookingRepository = bookingRepository;
+        this.phaseQueue = phaseQueue;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Догоняет фазы, пропущенные, пока сервер не работал (или переходы держал другой экземпляр),
+     * и заново заполняет очередь из bookings.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${shareit.booking.phase-check-cron:0 45 3 * * *}")
+    public void reload() {
+        LocalDateTime now = LocalDateTime.now();
+        int changed = catchUp(now);
+        if (changed > 0) {
+            log.info("Фаза исправлена у {} бронирований", changed);
+        }
+        // очистка до чтения: бронирование, зафиксированное после чтения, попадет в очередь из after-commit
+        // и не будет стерто, а повтор перехода ничего не меняет
+        phaseQueue.clear();
+        bookingRepository.findPhaseSchedules(ACTIVE).forEach(schedule -> phaseQueue.schedule(
+                schedule.getBookingId(), schedule.getStartDate(), schedule.getEndDate(), now));
+        log.info("В очереди смены фазы {} переходов", phaseQueue.size());
+    }
+
+    /**
+     * Переводит по индексам phase бронирования, которых нет в очереди этого экземпляра.
+     * Повторный перевод уже переведенных строк ничего не меняет, поэтому проходы экземпляров не мешают друг другу.
+     */
+    @Scheduled(fixedDelayString = "${shareit.booking.phase-catch-up-delay-ms:30000}",
+            initialDelayString = "${shareit.booking.phase-catch-up-delay-ms:30000}")
+    public void catchUpMissed() {
+        int changed = catchUp(LocalDateTime.now());
+        if (changed > 0) {
+            log.debug("Фаза догнана у {} бронирований вне очереди", changed);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.phase-delay-ms:1000}")
+    public void advance() {
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        Map<Long, BookingPhase> due;
+        do {
+            due = phaseQueue.pollDue(now, batchSize);
+            if (!due.isEmpty()) {
+                try {
+                    total += apply(due);
+                } catch (RuntimeException e) {
+                    phaseQueue.retry(due, now);
+                    throw e;
+                }
+            }
+        } while (due.size() == batchSize);
+        if (total > 0) {
+            log.debug("Сменилась фаза у {} бронирований", total);
+        }
+    }
+
+    /**
+     * Переводит в нужную фазу бронирования, у которых начало или окончание уже прошло.
+     *
+     * @return число измененных строк
+     */
+    public int catchUp(LocalDateTime now) {
+        Integer changed = transactionTemplate.execute(status ->
+                bookingRepository.updatePhaseOfEnded(ACTIVE, BookingPhase.PAST, now)
+                        + bookingRepository.updatePhaseOfStarted(BookingPhase.FUTURE, BookingPhase.CURRENT, now));
+        return changed == null ? 0 : changed;
+    }
+
+    private int apply(Map<Long, BookingPhase> due) {
+        Map<BookingPhase, List<Long>> byPhase = new EnumMap<>(BookingPhase.class);
+        due.forEach((bookingId, phase) -> byPhase.computeIfAbsent(phase, p -> new ArrayList<>()).add(bookingId));
+        Integer changed = transactionTemplate.execute(status -> byPhase.entrySet().stream()
+                .mapToInt(entry -> bookingRepository.updatePhase(entry.getValue(), entry.getKey()))
+                .sum());
+        return changed == null ? 0 : changed;
+    }
+}
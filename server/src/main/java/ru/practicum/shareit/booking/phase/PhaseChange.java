@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking.phase;
+
+import lombok.Value;
+import ru.practicum.shareit.booking.BookingPhase;
+
+import java.time.LocalDateTime;
+
+/**
+ * Момент, в который бронирование переходит в следующую фазу.
+ */
+@Value
+class PhaseChange {
+    LocalDateTime at;
+    Long bookingId;
+    BookingPhase phase;
+}
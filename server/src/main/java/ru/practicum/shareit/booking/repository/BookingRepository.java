@@ -1,35 +1,62 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.BookingPhase;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.booking.availability.Reservation;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-    Page<Booking> findByBookerId(Long bookerId, Pageable pageable);
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
+    String VIEW = "select new ru.practicum.shareit.booking.dto.BookingView(b.id, b.start, b.end, " +
+            "i.id, i.name, i.description, i.available, i.requestId, o.id, o.name, o.email, " +
+            "u.id, u.name, u.email, b.status) " +
+            "from Booking b join b.item i join i.owner o join b.booker u ";
+    String EXPORT_FETCH_SIZE = "500";
 
-    Page<Booking> findByBookerIdAndStartIsBeforeAndEndIsAfter(Long bookerId, LocalDateTime start,
-                                                              LocalDateTime end, Pageable pageable);
+    /**
+     * Все бронирования вещей владельца, от новых к старым. Читается курсором только вперед
+     * с JDBC fetch size, поэтому должен выполняться в транзакции, а Stream - закрываться.
+     */
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = "org.hibernate.cacheable", value = "false")
+    })
+    @Query(VIEW + "where o.id = :userId order by b.start desc, b.id desc")
+    Stream<BookingView> streamByOwnerId(@Param("userId") Long ownerId);
 
-    Page<Booking> findByBookerIdAndEndIsBefore(Long bookerId, LocalDateTime end, Pageable pageable);
+    /**
+     * Меняет статус, только если он все еще равен from.
+     *
+     * @return 1, если статус изменен, 0 - если бронирования нет или его статус уже другой
+     */
+    @Modifying
+    @Query("update Booking b set b.status = :to where b.id = :id and b.status = :from")
+    int updateStatus(@Param("id") Long id, @Param("from") Status from, @Param("to") Status to);
 
-    Page<Booking> findByBookerIdAndStartIsAfter(Long bookerId, LocalDateTime start, Pageable pageable);
+    /**
+     * Пакетный вариант updateStatus: один UPDATE для всех бронирований, переходящих в статус to.
+     *
+     * @return число измененных строк
+     */
+    @Modifying
+    @Query("update Booking b set b.status = :to where b.id in :ids and b.status = :from")
+    int updateStatuses(@Param("ids") Collection<Long> ids, @Param("from") Status from, @Param("to") Status to);
 
-    Page<Booking> findByBookerIdAndStatus(Long bookerId, Status status, Pageable pageable);
-
-    Page<Booking> findByItem_Owner_Id(Long ownerId, Pageable pageable);
-
-    Page<Booking> findByItem_Owner_IdAndStartIsBeforeAndEndIsAfter(Long ownerId, LocalDateTime start,
-                                                                   LocalDateTime end, Pageable pageable);
-
-    Page<Booking> findByItem_Owner_IdAndEndIsBefore(Long ownerId, LocalDateTime end, Pageable pageable);
-
-    Page<Booking> findByItem_Owner_IdAndStartIsAfter(Long ownerId, LocalDateTime start, Pageable pageable);
-
-    Page<Booking> findByItem_Owner_IdAndStatus(Long ownerId, Status status, Pageable pageable);
+    @Query("select b.id as id, b.status as status, i.id as itemId, i.owner.id as ownerId " +
+            "from Booking b join b.item i " +
+            "where b.id in :ids")
+    List<DecisionTarget> findDecisionTargets(@Param("ids") Collection<Long> ids);
 
     Booking findFirstByItem_IdAndStartAfterAndStatusOrderByStartAsc(Long itemId,
                                                                     LocalDateTime end, Status status);
@@ -38,4 +65,74 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
 
     Booking findFirstByItem_IdAndBooker_IdAndEndIsBeforeAndStatus(Long itemId, Long userId,
                                                                   LocalDateTime end, Status status);
+
+    @Query("select b from Booking b " +
+            "join fetch b.item i " +
+            "join fetch i.owner " +
+            "join fetch b.booker " +
+            "where i.id in :itemIds and b.start < :now " +
+            "and b.end = (select max(lb.end) from Booking lb " +
+            "where lb.item.id = i.id and lb.start < :now) " +
+            "order by b.id")
+    List<Booking> findLastBookingsByItemIds(@Param("itemIds") Collection<Long> itemIds,
+                                            @Param("now") LocalDateTime now);
+
+    @Query("select b from Booking b " +
+            "join fetch b.item i " +
+            "join fetch i.owner " +
+            "join fetch b.booker " +
+            "where i.id in :itemIds and b.start > :now and b.status = :status " +
+            "and b.start = (select min(nb.start) from Booking nb " +
+            "where nb.item.id = i.id and nb.start > :now and nb.status = :status) " +
+            "order by b.id")
+    List<Booking> findNextBookingsByItemIds(@Param("itemIds") Collection<Long> itemIds,
+                                            @Param("now") LocalDateTime now,
+                                            @Param("status") Status status);
+
+    @Query("select new ru.practicum.shareit.booking.availability.Reservation(b.item.id, b.id, b.start, b.end) " +
+            "from Booking b " +
+            "where b.status in :statuses and b.end > :now")
+    List<Reservation> findReservations(@Param("statuses") Collection<Status> statuses,
+                                       @Param("now") LocalDateTime now);
+
+    @Query("select b.id as bookingId, b.start as startDate, b.end as endDate from Booking b " +
+            "where b.phase in :phases")
+    List<PhaseSchedule> findPhaseSchedules(@Param("phases") Collection<BookingPhase> phases);
+
+    @Modifying
+    @Query("update Booking b set b.phase = :phase where b.id in :ids and b.phase <> :phase")
+    int updatePhase(@Param("ids") Collection<Long> ids, @Param("phase") BookingPhase phase);
+
+    @Modifying
+    @Query("update Booking b set b.phase = :phase where b.phase in :previous and b.end <= :now")
+    int updatePhaseOfEnded(@Param("previous") Collection<BookingPhase> previous,
+                           @Param("phase") BookingPhase phase,
+                           @Param("now") LocalDateTime now);
+
+    /**
+     * Вызывается после updatePhaseOfEnded: к этому моменту у оставшихся бронирований окончание еще не наступило.
+     */
+    @Modifying
+    @Query("update Booking b set b.phase = :phase where b.phase = :previous and b.start <= :now")
+    int updatePhaseOfStarted(@Param("previous") BookingPhase previous,
+                             @Param("phase") BookingPhase phase,
+                             @Param("now") LocalDateTime now);
+
+    interface DecisionTarget {
+        Long getId();
+
+        Status getStatus();
+
+        Long getItemId();
+
+        Long getOwnerId();
+    }
+
+    interface PhaseSchedule {
+        Long getBookingId();
+
+        LocalDateTime getStartDate();
+
+        LocalDateTime getEndDate();
+    }
 }
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Slice;
+import org.springframework.lang.Nullable;
+import ru.practicum.shareit.booking.BookingRole;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.pagination.KeysetCursor;
+
+import java.util.List;
+
+public interface BookingRepositoryCustom {
+    /**
+     * Страница бронирований, упорядоченных по (start, id) по убыванию, начиная сразу после курсора.
+     * Запрос подсчета не выполняется, стоимость любой страницы одинакова.
+     */
+    Slice<BookingView> findSlice(BookingRole role, Long userId, BookingState state,
+                                 @Nullable KeysetCursor cursor, int size);
+
+    /**
+     * Страница бронирований по смещению, в том же порядке, что и findSlice. Запрос подсчета не выполняется.
+     */
+    List<BookingView> findPage(BookingRole role, Long userId, BookingState state, int offset, int size);
+}
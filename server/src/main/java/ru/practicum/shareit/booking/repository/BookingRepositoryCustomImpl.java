@@ -0,0 +1,93 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.lang.Nullable;
+import ru.practicum.shareit.booking.BookingRole;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.pagination.KeysetCursor;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Списки бронирований по (роль, состояние, курсор) одним запросом. Текст запроса зависит только
+ * от этой формы, значения передаются параметрами, поэтому на каждую форму приходится один
+ * закэшированный текст JPQL, один план Hibernate и один подготовленный оператор драйвера.
+ * Условия построены под индексы V2/V9/V10: равенство по пользователю (и статусу или фазе), затем start_date, id.
+ */
+public class BookingRepositoryCustomImpl implements BookingRepositoryCustom {
+    private final Map<Shape, String> queries = new ConcurrentHashMap<>();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<BookingView> findSlice(BookingRole role, Long userId, BookingState state,
+                                        @Nullable KeysetCursor cursor, int size) {
+        TypedQuery<BookingView> query = createQuery(new Shape(role, state, cursor != null), userId);
+        if (cursor != null) {
+            query.setParameter("cursorStart", cursor.getTimestamp());
+            query.setParameter("cursorId", cursor.getId());
+        }
+        List<BookingView> bookings = query
+                .setMaxResults(size + 1)
+                .getResultList();
+        boolean hasNext = bookings.size() > size;
+        List<BookingView> content = hasNext ? new ArrayList<>(bookings.subList(0, size)) : bookings;
+        return new SliceImpl<>(content, PageRequest.of(0, size), hasNext);
+    }
+
+    @Override
+    public List<BookingView> findPage(BookingRole role, Long userId, BookingState state, int offset, int size) {
+        return createQuery(new Shape(role, state, false), userId)
+                .setFirstResult(offset)
+                .setMaxResults(size)
+                .getResultList();
+    }
+
+    private TypedQuery<BookingView> createQuery(Shape shape, Long userId) {
+        TypedQuery<BookingView> query = entityManager.createQuery(
+                queries.computeIfAbsent(shape, BookingRepositoryCustomImpl::compile), BookingView.class);
+        query.setParameter("userId", userId);
+        if (shape.state.getPhase() != null) {
+            query.setParameter("phase", shape.state.getPhase());
+        }
+        if (shape.state.getStatus() != null) {
+            query.setParameter("status", shape.state.getStatus());
+        }
+        return query;
+    }
+
+    private static String compile(Shape shape) {
+        StringBuilder jpql = new StringBuilder(BookingRepository.VIEW);
+        jpql.append(shape.role == BookingRole.OWNER ? "where o.id = :userId" : "where u.id = :userId");
+        if (shape.state.getPhase() != null) {
+            jpql.append(" and b.phase = :phase");
+        }
+        if (shape.state.getStatus() != null) {
+            jpql.append(" and b.status = :status");
+        }
+        if (shape.keyset) {
+            jpql.append(" and (b.start < :cursorStart or (b.start = :cursorStart and b.id < :cursorId))");
+        }
+        return jpql.append(" order by b.start desc, b.id desc").toString();
+    }
+
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static final class Shape {
+        private final BookingRole role;
+        private final BookingState state;
+        private final boolean keyset;
+    }
+}
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Реплики для чтения. Пока список пуст, все запросы идут в spring.datasource.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.datasource")
+public class ReplicaProperties {
+    private List<Replica> replicas = new ArrayList<>();
+    /**
+     * Реплика, отставшая от основной базы сильнее, не получает запросов до следующей проверки.
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+    private Duration lagCheckInterval = Duration.ofSeconds(2);
+    /**
+     * Запрос, возвращающий отставание реплики в секундах.
+     */
+    private String lagQuery = "select case when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0 " +
+            "else extract(epoch from now() - pg_last_xact_replay_timestamp()) end";
+    private int maximumPoolSize = 10;
+
+    @Getter
+    @Setter
+    public static class Replica {
+        private String url;
+        /**
+         * По умолчанию те же, что у основной базы.
+         */
+        private String username;
+        private String password;
+    }
+}
@@ -0,0 +1,140 @@
+package ru.practicum.shareit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Направляет соединения транзакций readOnly, начатых методами сервисов приложения, на реплики по кругу,
+ * остальные - в основную базу. Транзакции readOnly, которые Spring Data открывает по умолчанию
+ * в методах репозиториев (findById вне транзакции сервиса), остаются на основной базе: такие чтения
+ * обычно предшествуют записи, и реплика может еще не содержать только что созданную строку.
+ * Отставание реплик проверяется в фоне: отставшие и недоступные пропускаются,
+ * если подходящих реплик нет, чтение тоже идет в основную базу.
+ * Решение принимается при получении соединения, поэтому источник оборачивается в LazyConnectionDataSourceProxy:
+ * иначе соединение берется до того, как транзакция помечена readOnly.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+    static final String PRIMARY = "primary";
+    /**
+     * Начало имени транзакции, которую объявил метод приложения: имя состоит из класса и метода.
+     */
+    static final String APPLICATION_TRANSACTION_PREFIX = "ru.practicum.shareit.";
+
+    private final List<Replica> replicas = new ArrayList<>();
+    private final Duration maxLag;
+    private final String lagQuery;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService lagChecker;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicaDataSources,
+                                    ReplicaProperties properties) {
+        this.maxLag = properties.getMaxLag();
+        this.lagQuery = properties.getLagQuery();
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicaDataSources.size(); i++) {
+            Replica replica = new Replica("replica-" + i, replicaDataSources.get(i));
+            replicas.add(replica);
+            targets.put(replica.name, replica.dataSource);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+
+        lagChecker = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "replica-lag-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        lagChecker.scheduleWithFixedDelay(this::checkLag, 0,
+                properties.getLagCheckInterval().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || !isApplicationTransaction()) {
+            return PRIMARY;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.available) {
+                return replica.name;
+            }
+        }
+        return PRIMARY;
+    }
+
+    private static boolean isApplicationTransaction() {
+        String name = TransactionSynchronizationManager.getCurrentTransactionName();
+        return name != null && name.startsWith(APPLICATION_TRANSACTION_PREFIX);
+    }
+
+    void checkLag() {
+        for (Replica replica : replicas) {
+            boolean available;
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                double lagSeconds = resultSet.next() ? resultSet.getDouble(1) : Double.MAX_VALUE;
+                available = !resultSet.wasNull() && lagSeconds * 1000 <= maxLag.toMillis();
+                if (!available && replica.available) {
+                    log.warn("Реплика {} отстает на {} с, чтение переключено на другие базы", replica.name, lagSeconds);
+                }
+            } catch (SQLException e) {
+                available = false;
+                if (replica.available) {
+                    log.warn("Реплика {} недоступна: {}", replica.name, e.getMessage());
+                }
+            }
+            if (available && !replica.available) {
+                log.info("Реплика {} принимает запросы на чтение", replica.name);
+            }
+            replica.available = available;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        lagChecker.shutdownNow();
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof Closeable) {
+                try {
+                    ((Closeable) replica.dataSource).close();
+                } catch (IOException e) {
+                    log.warn("Не удалось закрыть пул реплики {}", replica.name, e);
+                }
+            }
+        }
+    }
+
+    private static class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean available;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Профиль reset: перед миграциями удаляет все объекты схемы, как раньше делал schema.sql на каждом старте.
+ * Без этого профиля схема сохраняется между перезапусками и применяются только новые миграции.
+ */
+@Slf4j
+@Configuration
+@Profile("reset")
+public class SchemaResetConfig {
+
+    @Bean
+    public FlywayMigrationStrategy cleanMigrateStrategy() {
+        return flyway -> {
+            log.warn("Профиль reset: схема базы очищается и создается заново");
+            flyway.clean();
+            flyway.migrate();
+        };
+    }
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.imports;
+
+import java.util.List;
+
+/**
+ * Сохраняет порцию записей. Вызывается внутри транзакции порции.
+ */
+@FunctionalInterface
+public interface ChunkProcessor<T> {
+    ChunkResult process(List<ImportRow<T>> rows);
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.imports;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class ChunkResult {
+    private final int imported;
+    private final List<ImportErrorDto> errors;
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.imports;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Прогресс импорта после очередной порции: processed - записей прочитано с начала файла.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportChunkDto {
+    private int chunk;
+    private long processed;
+    private int imported;
+    private List<ImportErrorDto> errors;
+}
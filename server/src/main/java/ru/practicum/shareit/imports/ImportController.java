@@ -0,0 +1,46 @@
+package ru.practicum.shareit.imports;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Массовая загрузка пользователей и вещей. Тело запроса читается потоком, а отчет о порциях
+ * отправляется клиенту по мере их сохранения.
+ */
+@Slf4j
+@RestController
+public class ImportController {
+    private static final String OWNER = "X-Sharer-User-Id";
+    private final ImportService importService;
+
+    public ImportController(ImportService importService) {
+        this.importService = importService;
+    }
+
+    @PostMapping("/users/import")
+    public void importUsers(@RequestParam(defaultValue = "ndjson") String format,
+                            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        log.info("Получен POST-запрос на импорт пользователей, формат {}", format);
+        ImportFormat importFormat = ImportFormat.from(format);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        importService.importUsers(request.getInputStream(), importFormat, response.getOutputStream());
+    }
+
+    @PostMapping("/items/import")
+    public void importItems(@RequestParam(defaultValue = "ndjson") String format,
+                            @RequestHeader(OWNER) Long ownerId,
+                            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        log.info("Получен POST-запрос на импорт вещей пользователем {}, формат {}", ownerId, format);
+        ImportFormat importFormat = ImportFormat.from(format);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        importService.importItems(ownerId, request.getInputStream(), importFormat, response.getOutputStream());
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.imports;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportErrorDto {
+    private long row;
+    private String error;
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.imports;
+
+import ru.practicum.shareit.exception.ValidationException;
+
+public enum ImportFormat {
+    NDJSON,
+    CSV;
+
+    public static ImportFormat from(String format) {
+        for (ImportFormat value : values()) {
+            if (value.name().equalsIgnoreCase(format)) {
+                return value;
+            }
+        }
+        throw new ValidationException("Неизвестный формат импорта: " + format);
+    }
+}
@@ -0,0 +1,123 @@
+package ru.practicum.shareit.imports;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Потоковый импорт: записи читаются из входного потока по одной, копятся в порцию из batchSize записей,
+ * порция сохраняется в отдельной транзакции, после чего в ответ дописывается ее прогресс.
+ * В памяти одновременно находится не больше одной порции, независимо от размера файла.
+ * Ответ - JSON-объект {"chunks": [...], "summary": {...}}, который отправляется клиенту по мере обработки.
+ */
+@Slf4j
+@Component
+public class ImportPipeline {
+    private final ObjectMapper objectMapper;
+    private final CsvMapper csvMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final int batchSize;
+
+    public ImportPipeline(ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+                          EntityManager entityManager, @Value("${shareit.import.batch-size:500}") int batchSize) {
+        this.objectMapper = objectMapper;
+        this.csvMapper = new CsvMapper();
+        this.csvMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        this.csvMapper.enable(CsvParser.Feature.EMPTY_STRING_AS_NULL);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManager = entityManager;
+        this.batchSize = batchSize;
+    }
+
+    public <T> void run(InputStream input, ImportFormat format, Class<T> type, ChunkProcessor<T> processor,
+                        OutputStream output) throws IOException {
+        ImportSummaryDto summary = new ImportSummaryDto();
+        try (MappingIterator<T> records = open(input, format, type);
+             JsonGenerator report = objectMapper.createGenerator(output, JsonEncoding.UTF8)) {
+            report.writeStartObject();
+            report.writeArrayFieldStart("chunks");
+            List<ImportRow<T>> chunk = new ArrayList<>(batchSize);
+            int chunkNumber = 0;
+            while (true) {
+                T value;
+                try {
+                    if (!records.hasNextValue()) {
+                        break;
+                    }
+                    value = records.nextValue();
+                } catch (IOException | RuntimeJsonMappingException e) {
+                    summary.setError("Запись " + (summary.getProcessed() + 1) + ": " + e.getMessage());
+                    break;
+                }
+                summary.setProcessed(summary.getProcessed() + 1);
+                chunk.add(new ImportRow<>(summary.getProcessed(), value));
+                if (chunk.size() == batchSize) {
+                    writeChunk(report, ++chunkNumber, chunk, processor, summary);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                writeChunk(report, ++chunkNumber, chunk, processor, summary);
+            }
+            report.writeEndArray();
+            summary.setCompleted(summary.getError() == null);
+            report.writeObjectField("summary", summary);
+            report.writeEndObject();
+        }
+        log.info("Импорт {} завершен: прочитано {}, добавлено {}, отклонено {}", type.getSimpleName(),
+                summary.getProcessed(), summary.getImported(), summary.getRejected());
+    }
+
+    private <T> MappingIterator<T> open(InputStream input, ImportFormat format, Class<T> type) throws IOException {
+        if (format == ImportFormat.CSV) {
+            // колонки берутся из строки заголовка, поэтому их порядок в файле не важен
+            return csvMapper.readerFor(type)
+                    .with(CsvSchema.emptySchema().withHeader())
+                    .readValues(input);
+        }
+        return objectMapper.readerFor(type).readValues(input);
+    }
+
+    private <T> void writeChunk(JsonGenerator report, int chunkNumber, List<ImportRow<T>> chunk,
+                                ChunkProcessor<T> processor, ImportSummaryDto summary) throws IOException {
+        ChunkResult result;
+        try {
+            result = transactionTemplate.execute(status -> processor.process(chunk));
+        } catch (RuntimeException e) {
+            log.warn("Порция {} импорта не сохранена", chunkNumber, e);
+            result = new ChunkResult(0, chunk.stream()
+                    .map(row -> new ImportErrorDto(row.getRow(), "Порция не сохранена: " + e.getMessage()))
+                    .collect(Collectors.toList()));
+        } finally {
+            // сохраненные сущности больше не нужны, контекст не должен расти от порции к порции
+            entityManager.clear();
+        }
+        summary.setImported(summary.getImported() + result.getImported());
+        summary.setRejected(summary.getRejected() + result.getErrors().size());
+        report.writeObject(new ImportChunkDto(chunkNumber, summary.getProcessed(), result.getImported(),
+                result.getErrors()));
+        report.flush();
+        log.debug("Импорт: порция {}, прочитано {}, добавлено {}", chunkNumber, summary.getProcessed(),
+                summary.getImported());
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.imports;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Запись файла импорта и ее номер, начиная с 1 (строка заголовка CSV не считается).
+ */
+@Getter
+@AllArgsConstructor
+public class ImportRow<T> {
+    private final long row;
+    private final T value;
+}
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.imports;
+
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchBackend;
+import ru.practicum.shareit.request.repository.RequestRepository;
+import ru.practicum.shareit.user.registry.UserIdRegistry;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+@Service
+public class ImportService {
+    private final ImportPipeline pipeline;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final RequestRepository requestRepository;
+    private final ItemSearchBackend searchBackend;
+    private final UserIdRegistry userIds;
+
+    public ImportService(ImportPipeline pipeline, UserRepository userRepository, ItemRepository itemRepository,
+                         RequestRepository requestRepository, ItemSearchBackend searchBackend,
+                         UserIdRegistry userIds) {
+        this.pipeline = pipeline;
+        this.userRepository = userRepository;
+        this.itemRepository = itemRepository;
+        this.requestRepository = requestRepository;
+        this.searchBackend = searchBackend;
+        this.userIds = userIds;
+    }
+
+    public void importUsers(InputStream input, ImportFormat format, OutputStream output) throws IOException {
+        pipeline.run(input, format, UserImportRow.class, new UserImportProcessor(userRepository, userIds), output);
+    }
+
+    public void importItems(long ownerId, InputStream input, ImportFormat format, OutputStream output)
+            throws IOException {
+        userIds.requireExists(ownerId);
+        pipeline.run(input, format, ItemImportRow.class,
+                new ItemImportProcessor(itemRepository, userRepository, requestRepository, searchBackend,
+                        ownerId), output);
+    }
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.imports;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Итог импорта. completed = false, если файл не удалось дочитать: error содержит причину,
+ * порции до ошибки сохранены.
+ */
+@Data
+@NoArgsConstructor
+public class ImportSummaryDto {
+    private long processed;
+    private long imported;
+    private long rejected;
+    private boolean completed;
+    private String error;
+}
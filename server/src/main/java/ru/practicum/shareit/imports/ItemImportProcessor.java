@@ -0,0 +1,91 @@
+package ru.practicum.shareit.imports;
+
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchBackend;
+import ru.practicum.shareit.request.repository.RequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Сохраняет порцию вещей. Все вещи достаются пользователю, выполняющему импорт: строка, в которой
+ * ownerEmail указывает на другого пользователя, отклоняется. Запросы вещей проверяются одним запросом
+ * на порцию; строки с несуществующим запросом отклоняются по отдельности, не прерывая вставку остальных.
+ */
+public class ItemImportProcessor implements ChunkProcessor<ItemImportRow> {
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final RequestRepository requestRepository;
+    private final ItemSearchBackend searchBackend;
+    private final long defaultOwnerId;
+
+    public ItemImportProcessor(ItemRepository itemRepository, UserRepository userRepository,
+                               RequestRepository requestRepository, ItemSearchBackend searchBackend,
+                               long defaultOwnerId) {
+        this.itemRepository = itemRepository;
+        this.userRepository = userRepository;
+        this.requestRepository = requestRepository;
+        this.searchBackend = searchBackend;
+        this.defaultOwnerId = defaultOwnerId;
+    }
+
+    @Override
+    public ChunkResult process(List<ImportRow<ItemImportRow>> chunk) {
+        List<ImportErrorDto> errors = new ArrayList<>();
+        Set<Long> requestIds = findRequestIds(chunk.stream()
+                .map(row -> row.getValue().getRequestId())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
+        // пользователь мог быть удален после проверки при запуске импорта
+        User owner = userRepository.findById(defaultOwnerId).orElse(null);
+        List<Item> items = new ArrayList<>();
+        for (ImportRow<ItemImportRow> row : chunk) {
+            ItemImportRow value = row.getValue();
+            String error = validate(value);
+            if (error == null && owner == null) {
+                error = "Пользователь ID" + defaultOwnerId + " не найден";
+            }
+            if (error == null && value.getOwnerEmail() != null && !value.getOwnerEmail().equals(owner.getEmail())) {
+                error = "Нельзя импортировать вещь от имени владельца с E-mail=" + value.getOwnerEmail();
+            }
+            if (error == null && value.getRequestId() != null && !requestIds.contains(value.getRequestId())) {
+                error = "Запрос с ID" + value.getRequestId() + " не найден";
+            }
+            if (error != null) {
+                errors.add(new ImportErrorDto(row.getRow(), error));
+                continue;
+            }
+            items.add(new Item(null, value.getName(), value.getDescription(), value.getAvailable(), owner,
+                    value.getRequestId()));
+        }
+        itemRepository.saveAll(items).forEach(searchBackend::onItemSaved);
+        return new ChunkResult(items.size(), errors);
+    }
+
+    private Set<Long> findRequestIds(Set<Long> ids) {
+        if (ids.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(requestRepository.findIdsIn(ids));
+    }
+
+    private String validate(ItemImportRow value) {
+        if (value.getName() == null || value.getName().isBlank()) {
+            return "Не указано название";
+        }
+        if (value.getDescription() == null || value.getDescription().isBlank()) {
+            return "Не указано описание";
+        }
+        if (value.getAvailable() == null) {
+            return "Не указана доступность";
+        }
+        return null;
+    }
+}
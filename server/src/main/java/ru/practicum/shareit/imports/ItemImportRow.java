@@ -0,0 +1,20 @@
+package ru.practicum.shareit.imports;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Вещь из файла импорта. Владельцем всегда становится пользователь из X-Sharer-User-Id;
+ * ownerEmail, если указан, должен совпадать с его E-mail.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemImportRow {
+    private String name;
+    private String description;
+    private Boolean available;
+    private String ownerEmail;
+    private Long requestId;
+}
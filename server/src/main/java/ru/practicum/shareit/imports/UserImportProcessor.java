@@ -0,0 +1,69 @@
+package ru.practicum.shareit.imports;
+
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.registry.UserIdRegistry;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Сохраняет порцию пользователей: занятые E-mail проверяются одним запросом на порцию,
+ * новые пользователи вставляются пакетом.
+ */
+public class UserImportProcessor implements ChunkProcessor<UserImportRow> {
+    private final UserRepository userRepository;
+    private final UserIdRegistry userIds;
+
+    public UserImportProcessor(UserRepository userRepository, UserIdRegistry userIds) {
+        this.userRepository = userRepository;
+        this.userIds = userIds;
+    }
+
+    @Override
+    public ChunkResult process(List<ImportRow<UserImportRow>> chunk) {
+        List<ImportErrorDto> errors = new ArrayList<>();
+        Set<String> existing = findExistingEmails(chunk.stream()
+                .map(row -> row.getValue().getEmail())
+                .filter(email -> email != null)
+                .collect(Collectors.toSet()));
+        List<User> users = new ArrayList<>();
+        for (ImportRow<UserImportRow> row : chunk) {
+            UserImportRow value = row.getValue();
+            String error = validate(value);
+            if (error == null && !existing.add(value.getEmail())) {
+                error = "Пользователь с E-mail=" + value.getEmail() + " уже существует!";
+            }
+            if (error != null) {
+                errors.add(new ImportErrorDto(row.getRow(), error));
+                continue;
+            }
+            users.add(new User(null, value.getName(), value.getEmail()));
+        }
+        userRepository.saveAll(users).forEach(user -> userIds.addAfterCommit(user.getId()));
+        return new ChunkResult(users.size(), errors);
+    }
+
+    private Set<String> findExistingEmails(Set<String> emails) {
+        if (emails.isEmpty()) {
+            return new HashSet<>();
+        }
+        return new HashSet<>(userRepository.findEmailsIn(emails));
+    }
+
+    private String validate(UserImportRow value) {
+        if (value.getName() == null || value.getName().isBlank()) {
+            return "Не указано имя";
+        }
+        if (value.getEmail() == null || value.getEmail().isBlank()) {
+            return "Не указан E-mail";
+        }
+        if (!value.getEmail().contains("@")) {
+            return "Некорректный E-mail: " + value.getEmail();
+        }
+        return null;
+    }
+}
@@ -3,13 +3,21 @@ package ru.practicum.shareit.item;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.version.Tagged;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Slf4j
 @RestController
@@ -25,10 +33,24 @@ public class ItemController {
         this.itemService = itemService;
     }
 
+    /**
+     * Карточка вещи с ETag. Если версия вещи известна в памяти и совпадает с If-None-Match,
+     * отвечает 304 без обращения к БД.
+     */
     @GetMapping("/{itemId}")
-    public ItemWithBookingsDto getItemById(@PathVariable Long itemId,  @RequestHeader(OWNER) Long ownerId) {
+    public ResponseEntity<ItemWithBookingsDto> getItemById(
+            @PathVariable Long itemId, @RequestHeader(OWNER) Long ownerId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("Получен GET-запрос на получение вещи {}", itemId);
-        return itemService.getItemById(itemId, ownerId);
+        if (ifNoneMatch != null) {
+            Optional<String> tag = itemService.findItemTag(itemId, ownerId);
+            if (tag.isPresent() && matches(ifNoneMatch, tag.get())) {
+                log.info("Вещь {} не изменилась, ответ 304", itemId);
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(tag.get()).build();
+            }
+        }
+        Tagged<ItemWithBookingsDto> item = itemService.getTaggedItemById(itemId, ownerId);
+        return ResponseEntity.ok().eTag(item.getTag()).body(item.getBody());
     }
 
     @PostMapping
@@ -59,6 +81,15 @@ public class ItemController {
         return itemService.getItemsBySearchQuery(text, PageRequest.of(from / size, size));
     }
 
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto getAvailability(
+            @PathVariable Long itemId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Получен GET-запрос на проверку доступности вещи {} с {} по {}", itemId, from, to);
+        return itemService.getAvailability(itemId, from, to);
+    }
+
     @PostMapping("/{itemId}/comment")
     CommentDto addComment(@RequestHeader(OWNER) long userId,
                           @RequestBody CommentDto commentDto,
@@ -67,4 +98,20 @@ public class ItemController {
                 commentDto, itemId, userId);
         return itemService.createComment(commentDto, itemId, userId);
     }
-}
\ No newline at end of file
+
+    /**
+     * Слабое сравнение тегов, как требует If-None-Match: префикс W/ не учитывается.
+     */
+    private static boolean matches(String ifNoneMatch, String tag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
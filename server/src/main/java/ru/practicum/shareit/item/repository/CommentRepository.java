@@ -1,10 +1,19 @@
 package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findByItemId(long itemId);
+    @Query("select c from Comment c " +
+            "join fetch c.author " +
+            "join fetch c.item i " +
+            "join fetch i.owner " +
+            "where i.id in :itemIds " +
+            "order by c.created")
+    List<Comment> findByItemIdIn(@Param("itemIds") Collection<Long> itemIds);
 }
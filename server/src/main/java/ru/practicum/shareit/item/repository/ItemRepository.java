@@ -2,19 +2,64 @@ package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.IndexedItem;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
     @Query("select i from Item i " +
-            "where upper(i.name) like upper(concat('%', ?1, '%')) " +
-            " or upper(i.description) like upper(concat('%', ?1, '%')) and i.available = true")
+            "where (upper(i.name) like upper(concat('%', ?1, '%')) " +
+            " or upper(i.description) like upper(concat('%', ?1, '%'))) and i.available = true")
     Page<Item> search(String text, PageRequest pageRequest);
 
+    @Query(value = "select i.* from items i " +
+            "where i.available = true " +
+            "and (i.search_vector @@ plainto_tsquery('simple', :text) " +
+            "or i.name ilike concat('%', :text, '%') " +
+            "or i.description ilike concat('%', :text, '%')) " +
+            "order by ts_rank(i.search_vector, plainto_tsquery('simple', :text)) desc, i.id",
+            nativeQuery = true)
+    List<Item> searchFullText(@Param("text") String text, Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.item.search.IndexedItem(i.id, i.name, i.description) " +
+            "from Item i " +
+            "where i.available = true and i.id > :afterId " +
+            "order by i.id")
+    List<IndexedItem> findIndexedItemsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
     List<Item> findItemsByRequestId(long requestId);
 
+    @Query("select i from Item i " +
+            "join fetch i.owner " +
+            "where i.requestId in :requestIds " +
+            "order by i.id")
+    List<Item> findAllByRequestIdIn(@Param("requestIds") Collection<Long> requestIds);
+
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     List<Item> findAllByOwnerId(Long ownerId);
+
+    @Query("select i.id from Item i where i.id > :afterId order by i.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id = :id")
+    Optional<Item> findByIdForUpdate(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i " +
+            "join fetch i.owner " +
+            "where i.id in :ids " +
+            "order by i.id")
+    List<Item> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
 }
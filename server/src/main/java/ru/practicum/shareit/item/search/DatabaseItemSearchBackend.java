@@ -0,0 +1,52 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.List;
+
+/**
+ * Поиск средствами PostgreSQL: tsvector и триграммные GIN-индексы из миграции db/migration/postgresql.
+ * На других СУБД (H2 в профиле test) используется JPQL-запрос.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = ItemSearchBackend.PROPERTY, havingValue = "database")
+public class DatabaseItemSearchBackend implements ItemSearchBackend {
+    private final ItemRepository itemRepository;
+    private final boolean postgres;
+
+    public DatabaseItemSearchBackend(ItemRepository itemRepository, DataSource dataSource) {
+        this.itemRepository = itemRepository;
+        this.postgres = isPostgres(dataSource);
+        log.info("Поиск вещей средствами БД, PostgreSQL: {}", postgres);
+    }
+
+    @Override
+    public List<Item> search(String text, Pageable pageable) {
+        PageRequest page = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        if (postgres) {
+            return itemRepository.searchFullText(text, page);
+        }
+        return itemRepository.search(text, page).getContent();
+    }
+
+    private static boolean isPostgres(DataSource dataSource) {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            return "PostgreSQL".equalsIgnoreCase(product);
+        } catch (MetaDataAccessException e) {
+            log.warn("Не удалось определить СУБД, используется JPQL-поиск", e);
+            return false;
+        }
+    }
+}
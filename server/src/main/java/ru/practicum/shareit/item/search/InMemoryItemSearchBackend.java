@@ -0,0 +1,43 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+@Component
+@ConditionalOnProperty(name = ItemSearchBackend.PROPERTY, havingValue = "memory", matchIfMissing = true)
+public class InMemoryItemSearchBackend implements ItemSearchBackend {
+    private final ItemSearchIndex searchIndex;
+    private final ItemRepository itemRepository;
+
+    public InMemoryItemSearchBackend(ItemSearchIndex searchIndex, ItemRepository itemRepository) {
+        this.searchIndex = searchIndex;
+        this.itemRepository = itemRepository;
+    }
+
+    @Override
+    public List<Item> search(String text, Pageable pageable) {
+        List<Long> ids = searchIndex.search(text, pageable.getOffset(), pageable.getPageSize());
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Item> found = itemRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Item::getId, item -> item));
+        return ids.stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void onItemSaved(Item item) {
+        searchIndex.indexAfterCommit(item);
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Locale;
+
+/**
+ * Текст вещи в поисковом индексе: название и описание, приведенные к нижнему регистру.
+ */
+@Getter
+@ToString
+public class IndexedItem {
+    private final Long id;
+    private final String name;
+    private final String description;
+
+    public IndexedItem(Long id, String name, String description) {
+        this.id = id;
+        this.name = normalize(name);
+        this.description = normalize(description);
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+}
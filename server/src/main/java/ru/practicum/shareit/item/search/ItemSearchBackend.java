@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+/**
+ * Способ поиска доступных вещей по тексту. Выбирается свойством shareit.search.backend:
+ * memory (по умолчанию) — индекс в памяти, jpql — LIKE-запрос, database — полнотекстовый поиск PostgreSQL.
+ */
+public interface ItemSearchBackend {
+    String PROPERTY = "shareit.search.backend";
+
+    List<Item> search(String text, Pageable pageable);
+
+    default void onItemSaved(Item item) {
+    }
+}
@@ -0,0 +1,326 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Инвертированный индекс доступных вещей по n-граммам (длиной от 1 до 3) слов названия и описания.
+ * Кандидаты находятся пересечением списков n-грамм запроса, после чего проверяется вхождение
+ * всей строки запроса в название или описание, как в прежнем LIKE '%text%'.
+ * Индекс хранится в памяти каждого экземпляра сервера и обновляется только изменениями, прошедшими
+ * через этот экземпляр: вещи, созданные или измененные другим экземпляром, попадают в него при
+ * следующем запуске (ItemSearchIndexLoader). Для нескольких экземпляров подходит shareit.search.backend=database.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = ItemSearchBackend.PROPERTY, havingValue = "memory", matchIfMissing = true)
+public class ItemSearchIndex {
+    static final int GRAM_LENGTH = 3;
+
+    private static final Comparator<Match> BY_RELEVANCE =
+            Comparator.comparingInt((Match match) -> match.rank).thenComparing(match -> match.id);
+
+    private final Map<Long, IndexedItem> items = new ConcurrentHashMap<>();
+    // списки id упорядочены, чтобы кандидаты просматривались по возрастанию id
+    private final Map<String, NavigableSet<Long>> postings = new ConcurrentHashMap<>();
+    private final Map<String, NavigableSet<Long>> nameGrams = new ConcurrentHashMap<>();
+    private final Map<String, NavigableSet<Long>> namePrefixes = new ConcurrentHashMap<>();
+    private final Map<String, NavigableSet<Long>> descriptionPrefixes = new ConcurrentHashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Возвращает id найденных вещей в порядке релевантности: сначала совпадения в названии,
+     * среди них выше те, где запрос совпадает с началом слова; при равенстве — по id.
+     * Запрос без букв и цифр ничего не находит.
+     */
+    public List<Long> search(String text, long offset, int limit) {
+        String query = IndexedItem.normalize(text).trim();
+        if (query.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            return isShortWord(query) ? searchShortWord(query, offset, limit) : searchRanked(query, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void index(Item item) {
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            remove(item.getId());
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(item.getId());
+            add(new IndexedItem(item.getId(), item.getName(), item.getDescription()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Индексирует вещь после фиксации текущей транзакции или сразу, если транзакции нет.
+     */
+    public void indexAfterCommit(Item item) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    index(item);
+                }
+            });
+        } else {
+            index(item);
+        }
+    }
+
+    public void indexAll(Collection<IndexedItem> batch) {
+        lock.writeLock().lock();
+        try {
+            batch.forEach(item -> {
+                removeUnlocked(item.getId());
+                add(item);
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long itemId) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    private void add(IndexedItem item) {
+        items.put(item.getId(), item);
+        addAll(postings, grams(item.getName() + " " + item.getDescription()), item.getId());
+        addAll(nameGrams, grams(item.getName()), item.getId());
+        addAll(namePrefixes, prefixes(item.getName()), item.getId());
+        addAll(descriptionPrefixes, prefixes(item.getDescription()), item.getId());
+    }
+
+    private void removeUnlocked(Long itemId) {
+        IndexedItem previous = items.remove(itemId);
+        if (previous == null) {
+            return;
+        }
+        removeAll(postings, grams(previous.getName() + " " + previous.getDescription()), itemId);
+        removeAll(nameGrams, grams(previous.getName()), itemId);
+        removeAll(namePrefixes, prefixes(previous.getName()), itemId);
+        removeAll(descriptionPrefixes, prefixes(previous.getDescription()), itemId);
+    }
+
+    private static void addAll(Map<String, NavigableSet<Long>> index, Set<String> keys, Long itemId) {
+        for (String key : keys) {
+            index.computeIfAbsent(key, k -> new ConcurrentSkipListSet<>()).add(itemId);
+        }
+    }
+
+    private static void removeAll(Map<String, NavigableSet<Long>> index, Set<String> keys, Long itemId) {
+        for (String key : keys) {
+            Set<Long> ids = index.get(key);
+            if (ids != null) {
+                ids.remove(itemId);
+                if (ids.isEmpty()) {
+                    index.remove(key);
+                }
+            }
+        }
+    }
+
+    /**
+     * Слово не длиннее n-граммы само есть n-грамма, поэтому каждый ранг читается из своего списка
+     * по возрастанию id: страница собирается без просмотра всех вещей, содержащих эти буквы.
+     */
+    private List<Long> searchShortWord(String word, long offset, int limit) {
+        NavigableSet<Long> inName = nameGrams.getOrDefault(word, Collections.emptyNavigableSet());
+        NavigableSet<Long> nameStart = namePrefixes.getOrDefault(word, Collections.emptyNavigableSet());
+        NavigableSet<Long> descriptionStart = descriptionPrefixes.getOrDefault(word, Collections.emptyNavigableSet());
+        NavigableSet<Long> anywhere = postings.getOrDefault(word, Collections.emptyNavigableSet());
+        return Stream.of(
+                        nameStart.stream(),
+                        inName.stream().filter(id -> !nameStart.contains(id)),
+                        descriptionStart.stream().filter(id -> !inName.contains(id)),
+                        anywhere.stream().filter(id -> !inName.contains(id) && !descriptionStart.contains(id)))
+                .flatMap(ids -> ids)
+                .skip(offset)
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Держит только offset + limit лучших совпадений. Кандидаты идут по возрастанию id, поэтому
+     * просмотр заканчивается, как только все отобранные совпадают с началом слова в названии.
+     */
+    private List<Long> searchRanked(String query, long offset, int limit) {
+        List<NavigableSet<Long>> lists = postingLists(query);
+        if (lists.isEmpty()) {
+            return List.of();
+        }
+        int capacity = (int) Math.min(offset + limit, Integer.MAX_VALUE);
+        PriorityQueue<Match> top = new PriorityQueue<>(BY_RELEVANCE.reversed());
+        for (Long id : lists.get(0)) {
+            if (!containsInAll(lists, id)) {
+                continue;
+            }
+            int rank = rank(items.get(id), query);
+            if (rank < 0) {
+                continue;
+            }
+            Match match = new Match(id, rank);
+            if (top.size() < capacity) {
+                top.add(match);
+            } else if (BY_RELEVANCE.compare(match, top.peek()) < 0) {
+                top.poll();
+                top.add(match);
+            }
+            if (top.size() == capacity && top.peek().rank == 0) {
+                break;
+            }
+        }
+        List<Match> matches = new ArrayList<>(top);
+        matches.sort(BY_RELEVANCE);
+        return matches.stream()
+                .skip(offset)
+                .map(match -> match.id)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Списки n-грамм запроса от короткого к длинному; пустой результат, если хотя бы одной n-граммы
+     * нет в индексе или в запросе нет слов.
+     */
+    private List<NavigableSet<Long>> postingLists(String query) {
+        Set<String> queryGrams = new HashSet<>();
+        for (String word : words(query)) {
+            if (word.length() <= GRAM_LENGTH) {
+                queryGrams.add(word);
+            } else {
+                for (int i = 0; i + GRAM_LENGTH <= word.length(); i++) {
+                    queryGrams.add(word.substring(i, i + GRAM_LENGTH));
+                }
+            }
+        }
+        List<NavigableSet<Long>> lists = new ArrayList<>();
+        for (String gram : queryGrams) {
+            NavigableSet<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return List.of();
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+        return lists;
+    }
+
+    private static boolean containsInAll(List<NavigableSet<Long>> lists, Long id) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isShortWord(String query) {
+        if (query.length() > GRAM_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < query.length(); i++) {
+            if (!Character.isLetterOrDigit(query.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int rank(IndexedItem item, String query) {
+        int inName = item.getName().indexOf(query);
+        if (inName >= 0) {
+            return isWordStart(item.getName(), query) ? 0 : 1;
+        }
+        int inDescription = item.getDescription().indexOf(query);
+        if (inDescription >= 0) {
+            return isWordStart(item.getDescription(), query) ? 2 : 3;
+        }
+        return -1;
+    }
+
+    private static boolean isWordStart(String text, String query) {
+        for (int from = text.indexOf(query); from >= 0; from = text.indexOf(query, from + 1)) {
+            if (from == 0 || !Character.isLetterOrDigit(text.charAt(from - 1))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (String word : words(text)) {
+            for (int length = 1; length <= GRAM_LENGTH; length++) {
+                for (int i = 0; i + length <= word.length(); i++) {
+                    grams.add(word.substring(i, i + length));
+                }
+            }
+        }
+        return grams;
+    }
+
+    private static Set<String> prefixes(String text) {
+        Set<String> prefixes = new HashSet<>();
+        for (String word : words(text)) {
+            for (int length = 1; length <= Math.min(GRAM_LENGTH, word.length()); length++) {
+                prefixes.add(word.substring(0, length));
+            }
+        }
+        return prefixes;
+    }
+
+    private static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean letter = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (letter && start < 0) {
+                start = i;
+            } else if (!letter && start >= 0) {
+                words.add(text.substring(start, i));
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    private static final class Match {
+        private final Long id;
+        private final int rank;
+
+        private Match(Long id, int rank) {
+            this.id = id;
+            this.rank = rank;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = ItemSearchBackend.PROPERTY, havingValue = "memory", matchIfMissing = true)
+public class ItemSearchIndexLoader {
+    private final ItemRepository itemRepository;
+    private final ItemSearchIndex searchIndex;
+    private final int batchSize;
+
+    public ItemSearchIndexLoader(ItemRepository itemRepository, ItemSearchIndex searchIndex,
+                                 @Value("${shareit.search.load-batch-size:1000}") int batchSize) {
+        this.itemRepository = itemRepository;
+        this.searchIndex = searchIndex;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long afterId = 0;
+        List<IndexedItem> batch;
+        do {
+            batch = itemRepository.findIndexedItemsAfter(afterId, PageRequest.of(0, batchSize));
+            searchIndex.indexAll(batch);
+            if (!batch.isEmpty()) {
+                afterId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == batchSize);
+        log.info("Поисковый индекс построен, вещей в индексе: {}", searchIndex.size());
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = ItemSearchBackend.PROPERTY, havingValue = "jpql")
+public class JpqlItemSearchBackend implements ItemSearchBackend {
+    private final ItemRepository itemRepository;
+
+    public JpqlItemSearchBackend(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+    @Override
+    public List<Item> search(String text, Pageable pageable) {
+        return itemRepository.search(text, PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()))
+                .getContent();
+    }
+}
@@ -2,11 +2,15 @@ package ru.practicum.shareit.item.service;
 
 import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
+import ru.practicum.shareit.item.version.Tagged;
 
 import javax.transaction.Transactional;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemService {
     ItemDto create(ItemDto item, Long ownerId);
@@ -20,5 +24,14 @@ public interface ItemService {
 
     ItemWithBookingsDto getItemById(Long id, Long itemId);
 
+    /**
+     * ETag карточки вещи, если ее текущая версия известна без обращения к БД.
+     */
+    Optional<String> findItemTag(Long itemId, Long userId);
+
+    Tagged<ItemWithBookingsDto> getTaggedItemById(Long itemId, Long userId);
+
     CommentDto createComment(CommentDto commentDto, Long itemId, Long userId);
+
+    ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
 }
\ No newline at end of file
@@ -3,7 +3,9 @@ package ru.practicum.shareit.item.service;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.availability.BookingIntervalIndex;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
@@ -11,6 +13,7 @@ import ru.practicum.shareit.exception.ItemNotFoundException;
 import ru.practicum.shareit.exception.UserNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
@@ -18,10 +21,14 @@ import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchBackend;
+import ru.practicum.shareit.item.summary.ItemBookingSummary;
+import ru.practicum.shareit.item.summary.ItemBookingSummaryService;
+import ru.practicum.shareit.item.version.ItemVersionRegistry;
+import ru.practicum.shareit.item.version.Tagged;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
-import javax.transaction.Transactional;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -34,14 +41,24 @@ public class ItemServiceImpl implements ItemService {
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
     private final CommentRepository commentRepository;
+    private final BookingIntervalIndex intervalIndex;
+    private final ItemSearchBackend searchBackend;
+    private final ItemBookingSummaryService summaryService;
+    private final ItemVersionRegistry versions;
 
 
     public ItemServiceImpl(ItemRepository itemRepository, CommentRepository commentRepository,
-                           BookingRepository bookingRepository, UserRepository userRepository) {
+                           BookingRepository bookingRepository, UserRepository userRepository,
+                           BookingIntervalIndex intervalIndex, ItemSearchBackend searchBackend,
+                           ItemBookingSummaryService summaryService, ItemVersionRegistry versions) {
         this.itemRepository = itemRepository;
         this.commentRepository = commentRepository;
         this.bookingRepository = bookingRepository;
         this.userRepository = userRepository;
+        this.intervalIndex = intervalIndex;
+        this.searchBackend = searchBackend;
+        this.summaryService = summaryService;
+        this.versions = versions;
     }
 
 
@@ -50,12 +67,15 @@ public class ItemServiceImpl implements ItemService {
     public ItemDto create(ItemDto itemDto, Long ownerId) {
         Item item = ItemMapper.toItem(itemDto);
         item.setOwner(getUser(ownerId));
-        ItemDto itemDtoActual = ItemMapper.toItemDto(itemRepository.save(item));
+        Item saved = itemRepository.save(item);
+        searchBackend.onItemSaved(saved);
+        ItemDto itemDtoActual = ItemMapper.toItemDto(saved);
         log.info("Добавлена новая вещь {}", itemDtoActual);
         return itemDtoActual;
     }
 
     @Override
+    @Transactional
     public ItemDto update(ItemDto itemDto, Long itemId, Long userId) {
         Item item = getItem(itemId);
 
@@ -67,27 +87,33 @@ public class ItemServiceImpl implements ItemService {
         Optional.ofNullable(itemDto.getDescription()).ifPresent(item::setDescription);
         Optional.ofNullable(itemDto.getAvailable()).ifPresent(item::setAvailable);
 
-        ItemDto itemDtoActual = ItemMapper.toItemDto(itemRepository.save(item));
+        Item saved = itemRepository.save(item);
+        searchBackend.onItemSaved(saved);
+        versions.invalidateAfterCommit(List.of(itemId));
+        ItemDto itemDtoActual = ItemMapper.toItemDto(saved);
         log.info("Вещь обновлена {}", itemId);
         return itemDtoActual;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ItemWithBookingsDto> getItemsByOwnerId(Long ownerId) {
         log.info("Запрос списка всех вещей пользователя ID{}", ownerId);
-        return itemRepository.findAllByOwnerId(ownerId).stream()
+        List<ItemWithBookingsDto> items = itemRepository.findAllByOwnerId(ownerId).stream()
                 .map(ItemMapper::toFullItemDto)
                 .sorted(Comparator.comparing(ItemWithBookingsDto::getId))
-                .peek(this::fillBookingsAndComments)
                 .collect(Collectors.toList());
+        fillBookingsAndComments(items, summaryService.findByOwnerId(ownerId, LocalDateTime.now()));
+        return items;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ItemDto> getItemsBySearchQuery(String text, PageRequest pageRequest) {
         if (text.isBlank()) {
             return new ArrayList<>();
         }
-        List<ItemDto> searchResult = itemRepository.search(text, pageRequest).stream()
+        List<ItemDto> searchResult = searchBackend.search(text, pageRequest).stream()
                 .map(ItemMapper::toItemDto)
                 .collect(Collectors.toList());
         log.info("Поиск вещи по тексту ' {} '", text);
@@ -95,27 +121,58 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ItemWithBookingsDto getItemById(Long itemId, Long userId) {
+        return getTaggedItemById(itemId, userId).getBody();
+    }
+
+    @Override
+    public Optional<String> findItemTag(Long itemId, Long userId) {
+        return versions.findTag(itemId, userId, LocalDateTime.now());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Tagged<ItemWithBookingsDto> getTaggedItemById(Long itemId, Long userId) {
+        LocalDateTime now = LocalDateTime.now();
+        long version = versions.stamp(itemId, now);
         Item item = getItem(itemId);
         ItemWithBookingsDto itemFullDto = ItemMapper.toFullItemDto(item);
-        if (item.getOwner().getId().equals(userId)) {
-            fillBookingsAndComments(itemFullDto);
+        Long ownerId = item.getOwner().getId();
+        if (ownerId.equals(userId)) {
+            Map<Long, ItemBookingSummary> summaries = summaryService.findByItemIds(Set.of(itemId), now);
+            fillBookingsAndComments(List.of(itemFullDto), summaries);
+            ItemBookingSummary summary = summaries.get(itemId);
+            versions.remember(itemId, version, ownerId, summary == null ? null : summary.getValidUntil());
             log.info("Запрос вещи по ID{}, выполнен ее владельцем", itemId);
-            return itemFullDto;
+            return new Tagged<>(versions.tag(version, true), itemFullDto);
         }
-        itemFullDto.setComments(findAllByItemId(itemId));
+        itemFullDto.setComments(findAllByItemIds(Set.of(itemId)).getOrDefault(itemId, new ArrayList<>()));
+        versions.remember(itemId, version, ownerId, null);
         log.info("Запрос вещи по ID{}", itemId);
-        return itemFullDto;
+        return new Tagged<>(versions.tag(version, false), itemFullDto);
     }
 
-    private void fillBookingsAndComments(ItemWithBookingsDto itemFullDto) {
-        itemFullDto.setLastBooking(BookingMapper.toBookingShortDto(
-                bookingRepository.findFirstByItem_IdAndStartBeforeOrderByEndDesc(itemFullDto.getId(),
-                        LocalDateTime.now())));
-        itemFullDto.setNextBooking(BookingMapper.toBookingShortDto(
-                bookingRepository.findFirstByItem_IdAndStartAfterAndStatusOrderByStartAsc(itemFullDto.getId(),
-                        LocalDateTime.now(), Status.APPROVED)));
-        itemFullDto.setComments(findAllByItemId(itemFullDto.getId()));
+    /**
+     * Заполняет последнее/следующее бронирование из сводки item_booking_summary и отзывы
+     * сразу для всего набора вещей.
+     */
+    private void fillBookingsAndComments(List<ItemWithBookingsDto> items, Map<Long, ItemBookingSummary> summaries) {
+        if (items.isEmpty()) {
+            return;
+        }
+        Set<Long> itemIds = items.stream()
+                .map(ItemWithBookingsDto::getId)
+                .collect(Collectors.toSet());
+        Map<Long, List<CommentDto>> comments = findAllByItemIds(itemIds);
+        for (ItemWithBookingsDto item : items) {
+            ItemBookingSummary summary = summaries.get(item.getId());
+            if (summary != null) {
+                item.setLastBooking(BookingMapper.toBookingShortDto(summary.getLastBooking()));
+                item.setNextBooking(BookingMapper.toBookingShortDto(summary.getNextBooking()));
+            }
+            item.setComments(comments.getOrDefault(item.getId(), new ArrayList<>()));
+        }
     }
 
     private Item getItem(long id) {
@@ -131,13 +188,14 @@ public class ItemServiceImpl implements ItemService {
                 userId, LocalDateTime.now(), Status.APPROVED);
     }
 
-    private List<CommentDto> findAllByItemId(long itemId) {
-        return commentRepository.findByItemId(itemId).stream()
-                .map(ItemMapper::commentDto)
-                .collect(Collectors.toList());
+    private Map<Long, List<CommentDto>> findAllByItemIds(Set<Long> itemIds) {
+        return commentRepository.findByItemIdIn(itemIds).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                        Collectors.mapping(ItemMapper::commentDto, Collectors.toList())));
     }
 
     @Override
+    @Transactional
     public CommentDto createComment(CommentDto commentDto, Long itemId, Long userId) {
         Booking booking = getBookingWithUserBookedItem(itemId, userId);
         if (booking == null) {
@@ -149,7 +207,21 @@ public class ItemServiceImpl implements ItemService {
         comment.setAuthor(booking.getBooker());
         comment.setCreated(LocalDateTime.now());
         CommentDto commentDtoNew = ItemMapper.commentDto(commentRepository.save(comment));
+        versions.invalidateAfterCommit(List.of(itemId));
         log.info("Добавлен новый отзыв {} к вещи с ID{}", commentDtoNew, itemId);
         return commentDtoNew;
     }
-}
\ No newline at end of file
+
+    @Override
+    @Transactional(readOnly = true)
+    public ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            log.error("Ошибка в выборе интервала, начало {}, окончание {}", from, to);
+            throw new ValidationException("Начало интервала должно быть раньше окончания");
+        }
+        Item item = getItem(itemId);
+        boolean available = item.getAvailable() && intervalIndex.isAvailable(itemId, from, to);
+        log.info("Запрос доступности вещи с ID{} с {} по {}: {}", itemId, from, to, available);
+        return new ItemAvailabilityDto(itemId, from, to, available);
+    }
+}
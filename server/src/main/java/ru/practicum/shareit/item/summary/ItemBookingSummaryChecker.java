@@ -0,0 +1,86 @@
+package ru.practicum.shareit.item.summary;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Сверяет сводку с bookings по расписанию и исправляет расхождения. При запуске только заполняет
+ * сводку для вещей, у которых есть бронирования, но нет строки (бронирования созданы до появления
+ * сводки); остальные строки актуализируются по validUntil.
+ */
+@Slf4j
+@Component
+public class ItemBookingSummaryChecker {
+    private final ItemRepository itemRepository;
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final ItemBookingSummaryService summaryService;
+    private final int batchSize;
+
+    public ItemBookingSummaryChecker(ItemRepository itemRepository, ItemBookingSummaryRepository summaryRepository,
+                                     ItemBookingSummaryService summaryService,
+                                     @Value("${shareit.booking-summary.batch-size:1000}") int batchSize) {
+        this.itemRepository = itemRepository;
+        this.summaryRepository = summaryRepository;
+        this.summaryService = summaryService;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        int filled = fillMissing(LocalDateTime.now());
+        if (filled > 0) {
+            log.info("Сводка бронирований заполнена для {} вещей", filled);
+        }
+    }
+
+    @Scheduled(cron = "${shareit.booking-summary.check-cron:0 30 3 * * *}")
+    public void rebuild() {
+        int changed = check(LocalDateTime.now());
+        if (changed > 0) {
+            log.warn("Сводка бронирований расходилась с bookings для {} вещей, исправлено", changed);
+        }
+    }
+
+    /**
+     * @return число вещей, для которых появилась строка сводки
+     */
+    public int fillMissing(LocalDateTime now) {
+        int filled = 0;
+        long afterId = 0;
+        List<Long> itemIds;
+        do {
+            itemIds = summaryRepository.findBookedItemIdsWithoutSummary(afterId, PageRequest.of(0, batchSize));
+            if (!itemIds.isEmpty()) {
+                filled += summaryService.refresh(itemIds, now);
+                afterId = itemIds.get(itemIds.size() - 1);
+            }
+        } while (itemIds.size() == batchSize);
+        return filled;
+    }
+
+    /**
+     * @return число вещей, у которых сводка отличалась от пересчитанной
+     */
+    public int check(LocalDateTime now) {
+        int changed = 0;
+        long afterId = 0;
+        List<Long> itemIds;
+        do {
+            itemIds = itemRepository.findIdsAfter(afterId, PageRequest.of(0, batchSize));
+            if (!itemIds.isEmpty()) {
+                changed += summaryService.refresh(itemIds, now);
+                afterId = itemIds.get(itemIds.size() - 1);
+            }
+        } while (itemIds.size() == batchSize);
+        return changed;
+    }
+}
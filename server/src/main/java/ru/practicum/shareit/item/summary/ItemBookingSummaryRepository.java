@@ -0,0 +1,44 @@
+package ru.practicum.shareit.item.summary;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ItemBookingSummaryRepository extends JpaRepository<ItemBookingSummary, Long> {
+    @Query("select s from ItemBookingSummary s, Item i " +
+            "where i.id = s.itemId and i.owner.id = :ownerId")
+    List<ItemBookingSummary> findAllByOwnerId(@Param("ownerId") Long ownerId);
+
+    @Query("select s.itemId from ItemBookingSummary s " +
+            "where s.validUntil < :now " +
+            "order by s.itemId")
+    List<Long> findStaleItemIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Query("select distinct b.item.id from Booking b " +
+            "where b.item.id > :afterId and not exists " +
+            "(select s.itemId from ItemBookingSummary s where s.itemId = b.item.id) " +
+            "order by b.item.id")
+    List<Long> findBookedItemIdsWithoutSummary(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Modifying
+    @Query("update ItemBookingSummary s set s.validUntil = :now where s.itemId in :itemIds")
+    int invalidate(@Param("itemIds") Collection<Long> itemIds, @Param("now") LocalDateTime now);
+
+    @Query("select b.item.id as itemId, min(b.start) as start from Booking b " +
+            "where b.item.id in :itemIds and b.start >= :now " +
+            "group by b.item.id")
+    List<UpcomingStart> findUpcomingStarts(@Param("itemIds") Collection<Long> itemIds,
+                                           @Param("now") LocalDateTime now);
+
+    interface UpcomingStart {
+        Long getItemId();
+
+        LocalDateTime getStart();
+    }
+}
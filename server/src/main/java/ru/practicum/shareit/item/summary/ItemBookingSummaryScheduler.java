@@ -0,0 +1,39 @@
+package ru.practicum.shareit.item.summary;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Пересчитывает строки сводки, у которых началось очередное бронирование:
+ * следующее бронирование становится последним.
+ */
+@Slf4j
+@Component
+public class ItemBookingSummaryScheduler {
+    private final ItemBookingSummaryService summaryService;
+    private final int batchSize;
+
+    public ItemBookingSummaryScheduler(ItemBookingSummaryService summaryService,
+                                       @Value("${shareit.booking-summary.batch-size:1000}") int batchSize) {
+        this.summaryService = summaryService;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-summary.refresh-delay-ms:60000}")
+    public void refreshStale() {
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        int refreshed;
+        do {
+            refreshed = summaryService.refreshStale(now, batchSize);
+            total += refreshed;
+        } while (refreshed == batchSize);
+        if (total > 0) {
+            log.info("Пересчитана сводка бронирований для {} вещей", total);
+        }
+    }
+}
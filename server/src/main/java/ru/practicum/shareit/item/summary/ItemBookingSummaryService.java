@@ -0,0 +1,175 @@
+package ru.practicum.shareit.item.summary;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.ItemNotFoundException;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.version.ItemVersionRegistry;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Поддерживает таблицу item_booking_summary. Записи бронирований пересчитывают строку своей вещи
+ * в той же транзакции; строки, у которых наступил validUntil, пересчитывает планировщик,
+ * а до этого при чтении они вычисляются заново по bookings.
+ */
+@Slf4j
+@Service
+public class ItemBookingSummaryService {
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final ItemVersionRegistry versions;
+
+    public ItemBookingSummaryService(ItemBookingSummaryRepository summaryRepository,
+                                     BookingRepository bookingRepository, ItemRepository itemRepository,
+                                     ItemVersionRegistry versions) {
+        this.summaryRepository = summaryRepository;
+        this.bookingRepository = bookingRepository;
+        this.itemRepository = itemRepository;
+        this.versions = versions;
+    }
+
+    /**
+     * Блокирует строку вещи до конца транзакции, чтобы записи бронирований одной вещи
+     * пересчитывали сводку по очереди. Вызывается до вставки бронирования.
+     */
+    public void lockItem(Long itemId) {
+        itemRepository.findByIdForUpdate(itemId)
+                .orElseThrow(() -> new ItemNotFoundException("Вещь не найдена"));
+    }
+
+    @Transactional
+    public void refresh(Long itemId) {
+        refresh(Set.of(itemId), LocalDateTime.now());
+    }
+
+    /**
+     * Помечает строку вещи устаревшей, не пересчитывая ее: до пересчета планировщиком
+     * чтения вычисляют сводку по bookings. В отличие от refresh, не требует lockItem,
+     * поэтому подходит для смены статуса без блокировки вещи.
+     */
+    @Transactional
+    public void invalidate(Long itemId) {
+        invalidate(Set.of(itemId));
+    }
+
+    @Transactional
+    public void invalidate(Collection<Long> itemIds) {
+        if (!itemIds.isEmpty()) {
+            summaryRepository.invalidate(itemIds, LocalDateTime.now());
+            versions.invalidateAfterCommit(itemIds);
+        }
+    }
+
+    /**
+     * Пересчитывает строки вещей по bookings.
+     *
+     * @return число строк, которые отличались от пересчитанных
+     */
+    @Transactional
+    public int refresh(Collection<Long> itemIds, LocalDateTime now) {
+        if (itemIds.isEmpty()) {
+            return 0;
+        }
+        Map<Long, ItemBookingSummary> actual = compute(itemIds, now);
+        Map<Long, ItemBookingSummary> stored = summaryRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(ItemBookingSummary::getItemId, Function.identity()));
+        List<Long> changed = new ArrayList<>();
+        for (Long itemId : itemIds) {
+            ItemBookingSummary fresh = actual.get(itemId);
+            ItemBookingSummary current = stored.get(itemId);
+            if (Objects.equals(fresh, current)) {
+                continue;
+            }
+            changed.add(itemId);
+            if (fresh == null) {
+                summaryRepository.delete(current);
+            } else {
+                summaryRepository.save(fresh);
+            }
+        }
+        versions.invalidateAfterCommit(changed);
+        return changed.size();
+    }
+
+    /**
+     * Пересчитывает не больше batchSize строк, у которых наступил validUntil.
+     *
+     * @return число пересчитанных строк
+     */
+    @Transactional
+    public int refreshStale(LocalDateTime now, int batchSize) {
+        List<Long> itemIds = summaryRepository.findStaleItemIds(now, PageRequest.of(0, batchSize));
+        refresh(itemIds, now);
+        return itemIds.size();
+    }
+
+    public Map<Long, ItemBookingSummary> findByOwnerId(Long ownerId, LocalDateTime now) {
+        return actualize(summaryRepository.findAllByOwnerId(ownerId), now);
+    }
+
+    public Map<Long, ItemBookingSummary> findByItemIds(Collection<Long> itemIds, LocalDateTime now) {
+        return actualize(summaryRepository.findAllById(itemIds), now);
+    }
+
+    private Map<Long, ItemBookingSummary> actualize(List<ItemBookingSummary> summaries, LocalDateTime now) {
+        Map<Long, ItemBookingSummary> result = new HashMap<>();
+        Set<Long> staleIds = summaries.stream()
+                .filter(summary -> summary.isStale(now))
+                .map(ItemBookingSummary::getItemId)
+                .collect(Collectors.toSet());
+        summaries.stream()
+                .filter(summary -> !staleIds.contains(summary.getItemId()))
+                .forEach(summary -> result.put(summary.getItemId(), summary));
+        if (!staleIds.isEmpty()) {
+            log.debug("Сводка бронирований устарела для вещей {}, пересчет при чтении", staleIds);
+            result.putAll(compute(staleIds, now));
+        }
+        return result;
+    }
+
+    private Map<Long, ItemBookingSummary> compute(Collection<Long> itemIds, LocalDateTime now) {
+        Map<Long, ItemBookingSummary> summaries = new HashMap<>();
+        // при равных датах запросы возвращают несколько бронирований вещи по возрастанию id, берется первое
+        for (Booking booking : bookingRepository.findLastBookingsByItemIds(itemIds, now)) {
+            ItemBookingSummary summary = summaries.computeIfAbsent(booking.getItem().getId(), this::emptySummary);
+            if (summary.getLastBooking() == null) {
+                summary.setLastBooking(toSummaryBooking(booking));
+            }
+        }
+        for (Booking booking : bookingRepository.findNextBookingsByItemIds(itemIds, now, Status.APPROVED)) {
+            ItemBookingSummary summary = summaries.computeIfAbsent(booking.getItem().getId(), this::emptySummary);
+            if (summary.getNextBooking() == null) {
+                summary.setNextBooking(toSummaryBooking(booking));
+            }
+        }
+        for (ItemBookingSummaryRepository.UpcomingStart upcoming : summaryRepository.findUpcomingStarts(itemIds, now)) {
+            summaries.computeIfAbsent(upcoming.getItemId(), this::emptySummary)
+                    .setValidUntil(upcoming.getStart());
+        }
+        return summaries;
+    }
+
+    private ItemBookingSummary emptySummary(Long itemId) {
+        return new ItemBookingSummary(itemId, null, null, null);
+    }
+
+    private SummaryBooking toSummaryBooking(Booking booking) {
+        return new SummaryBooking(booking.getId(), booking.getBooker().getId(), booking.getStart(), booking.getEnd());
+    }
+}
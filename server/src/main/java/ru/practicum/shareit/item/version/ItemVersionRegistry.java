@@ -0,0 +1,162 @@
+package ru.practicum.shareit.item.version;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Версии карточек вещей для ETag ответа GET /items/{itemId}. Версия выдается при чтении вещи
+ * и меняется при изменении вещи, новом отзыве, изменении сводки бронирований и изменении пользователей.
+ * Номера версий не повторяются, а тег включает случайную эпоху процесса, поэтому теги
+ * другого экземпляра сервера или до перезапуска не совпадают с выданными здесь.
+ * Изменения, сделанные в обход этого экземпляра, видны не позже чем через ttl.
+ */
+@Component
+public class ItemVersionRegistry {
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong versions = new AtomicLong();
+    private final String epoch = Long.toString(new SecureRandom().nextLong() & Long.MAX_VALUE, 36);
+    private final Duration ttl;
+    private final Duration settle;
+    private volatile LocalDateTime settledAt = LocalDateTime.MIN;
+
+    /**
+     * @param ttl    сколько версия действительна без изменений, прошедших через этот экземпляр
+     * @param settle сколько после изменения не запоминать версии: чтение с реплики может вернуть
+     *               данные до изменения, и тег не должен их закрепить
+     */
+    public ItemVersionRegistry(@Value("${shareit.item.etag-ttl:60s}") Duration ttl,
+                               @Value("${shareit.item.etag-settle:0s}") Duration settle) {
+        this.ttl = ttl;
+        this.settle = settle;
+    }
+
+    /**
+     * Тег карточки для пользователя без обращения к БД, если текущая версия уже была прочитана.
+     */
+    public Optional<String> findTag(long itemId, long userId, LocalDateTime now) {
+        Entry entry = entries.get(itemId);
+        if (entry == null || entry.ownerId == null || !entry.isCacheable(now) || now.isBefore(settledAt)) {
+            return Optional.empty();
+        }
+        return Optional.of(tag(entry.version, entry.ownerId == userId));
+    }
+
+    /**
+     * Версия, под которой будет отдана карточка. Берется до чтения данных: если вещь изменится
+     * во время чтения, версия сменится и прочитанное не будет запомнено.
+     */
+    public long stamp(long itemId, LocalDateTime now) {
+        if (now.isBefore(settledAt)) {
+            return versions.incrementAndGet();
+        }
+        Entry entry = entries.compute(itemId, (id, current) -> current == null || !current.expiresAt.isAfter(now)
+                ? new Entry(versions.incrementAndGet(), null, now.plus(ttl), now)
+                : current);
+        // пока изменение не дошло до реплик, каждый ответ получает свою версию
+        return entry.settledAt.isAfter(now) ? versions.incrementAndGet() : entry.version;
+    }
+
+    /**
+     * Запоминает владельца вещи после чтения версии, чтобы следующие запросы сравнивали тег без БД.
+     *
+     * @param validUntil до какого момента верны последнее и следующее бронирование, null - без ограничения
+     */
+    public void remember(long itemId, long version, long ownerId, LocalDateTime validUntil) {
+        entries.computeIfPresent(itemId, (id, current) -> current.version == version
+                ? current.read(ownerId, validUntil)
+                : current);
+    }
+
+    public String tag(long version, boolean owner) {
+        return "\"" + epoch + "-" + version + (owner ? "-o" : "-u") + "\"";
+    }
+
+    public void invalidate(Collection<Long> itemIds) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime settled = now.plus(settle);
+        for (Long itemId : itemIds) {
+            entries.put(itemId, new Entry(versions.incrementAndGet(), null, settled.plus(ttl), settled));
+        }
+    }
+
+    /**
+     * Сбрасывает все версии: имена и e-mail пользователей входят в карточки вещей и отзывов.
+     */
+    public void invalidateAll() {
+        settledAt = LocalDateTime.now().plus(settle);
+        entries.clear();
+    }
+
+    /**
+     * Меняет версии после фиксации текущей транзакции или сразу, если транзакции нет.
+     */
+    public void invalidateAfterCommit(Collection<Long> itemIds) {
+        if (!itemIds.isEmpty()) {
+            List<Long> ids = List.copyOf(itemIds);
+            afterCommit(() -> invalidate(ids));
+        }
+    }
+
+    public void invalidateAllAfterCommit() {
+        afterCommit(this::invalidateAll);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.item.etag-purge-delay-ms:60000}")
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        entries.values().removeIf(entry -> !entry.expiresAt.isAfter(now));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static class Entry {
+        private final long version;
+        private final Long ownerId;
+        private final LocalDateTime expiresAt;
+        private final LocalDateTime settledAt;
+
+        Entry(long version, Long ownerId, LocalDateTime expiresAt, LocalDateTime settledAt) {
+            this.version = version;
+            this.ownerId = ownerId;
+            this.expiresAt = expiresAt;
+            this.settledAt = settledAt;
+        }
+
+        boolean isCacheable(LocalDateTime now) {
+            return !now.isBefore(settledAt) && expiresAt.isAfter(now);
+        }
+
+        Entry read(long ownerId, LocalDateTime validUntil) {
+            LocalDateTime expires = validUntil != null && validUntil.isBefore(expiresAt) ? validUntil : expiresAt;
+            return new Entry(version, ownerId, expires, settledAt);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.version;
+
+import lombok.Value;
+
+/**
+ * Ответ вместе с ETag версии, под которой он прочитан.
+ */
+@Value
+public class Tagged<T> {
+    String tag;
+    T body;
+}
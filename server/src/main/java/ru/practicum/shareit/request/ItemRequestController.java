@@ -3,9 +3,12 @@ package ru.practicum.shareit.request;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
 
@@ -47,4 +50,20 @@ public class ItemRequestController {
                                        Integer size) {
         return itemRequestService.findAll(userId, PageRequest.of(from / size, size));
     }
+
+    @GetMapping(value = "/all", params = "cursor")
+    public ResponseEntity<List<ItemRequestDto>> getAllByCursor(
+            @RequestHeader(OWNER) Long userId,
+            @RequestParam(value = "cursor") String cursor,
+            @RequestParam(value = "size", defaultValue = "20") Integer size) {
+        log.info("Получен GET-запрос на получение запросов других пользователей по курсору от user {}", userId);
+        Slice<ItemRequestDto> requests = itemRequestService.findAllByCursor(userId, cursor, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (requests.hasNext()) {
+            ItemRequestDto last = requests.getContent().get(requests.getNumberOfElements() - 1);
+            response.header(KeysetCursor.NEXT_CURSOR_HEADER,
+                    new KeysetCursor(last.getCreated(), last.getId()).encode());
+        }
+        return response.body(requests.getContent());
+    }
 }
@@ -2,13 +2,40 @@ package ru.practicum.shareit.request.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface RequestRepository extends JpaRepository<ItemRequest, Long> {
+    @EntityGraph(attributePaths = "requester")
     Page<ItemRequest> findItemRequestsByRequester_IdIsNotOrderByCreated(Long requesterId, PageRequest pageRequest);
 
+    @EntityGraph(attributePaths = "requester")
     List<ItemRequest> findItemRequestsByRequester_IdOrderByCreated(Long ownerId);
+
+    @Query("select r from ItemRequest r " +
+            "join fetch r.requester u " +
+            "where u.id <> :userId " +
+            "order by r.created, r.id")
+    List<ItemRequest> findFeedStart(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("select r from ItemRequest r " +
+            "join fetch r.requester u " +
+            "where u.id <> :userId " +
+            "and (r.created > :created or (r.created = :created and r.id > :id)) " +
+            "order by r.created, r.id")
+    List<ItemRequest> findFeedAfter(@Param("userId") Long userId,
+                                    @Param("created") LocalDateTime created,
+                                    @Param("id") Long id,
+                                    Pageable pageable);
+
+    @Query("select r.id from ItemRequest r where r.id in :ids")
+    List<Long> findIdsIn(@Param("ids") Collection<Long> ids);
 }
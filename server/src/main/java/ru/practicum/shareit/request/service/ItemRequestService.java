@@ -1,6 +1,7 @@
 package ru.practicum.shareit.request.service;
 
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.util.List;
@@ -16,4 +17,6 @@ public interface ItemRequestService {
 
     List<ItemRequestDto> findAllByOwnerId(Long ownerId);
 
+    Slice<ItemRequestDto> findAllByCursor(Long userId, String cursor, Integer size);
+
 }
\ No newline at end of file
@@ -3,22 +3,30 @@ package ru.practicum.shareit.request.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.RequestNotFoundException;
 import ru.practicum.shareit.exception.UserNotFoundException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.RequestRepository;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.registry.UserIdRegistry;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,6 +37,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     private final RequestRepository repository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final UserIdRegistry userIds;
 
 
     @Override
@@ -43,38 +52,78 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ItemRequestDto findById(Long userId, Long requestId) {
-        getUser(userId);
+        userIds.requireExists(userId);
         ItemRequest itemRequest = getRequest(requestId);
         ItemRequestDto itemRequestDto = ItemRequestMapper.toItemRequestDto(itemRequest);
-        itemRequestDto.setItems(getItemsDtoByRequestId(requestId));
+        fillItems(List.of(itemRequestDto));
         log.info("Получены запросы для пользователя {} на запрос {}", userId, requestId);
         return itemRequestDto;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ItemRequestDto> findAll(Long userId, PageRequest pageRequest) {
-        getUser(userId);
+        userIds.requireExists(userId);
         List<ItemRequestDto> requestDtos = repository.findItemRequestsByRequester_IdIsNotOrderByCreated(userId, pageRequest)
                 .map(ItemRequestMapper::toItemRequestDto)
                 .toList();
-        requestDtos.forEach(itemRequestDto -> itemRequestDto.setItems(getItemsDtoByRequestId(itemRequestDto.getId())));
+        fillItems(requestDtos);
         log.info("Получен запрос на получение всех запросов от user {}", userId);
         return requestDtos;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ItemRequestDto> findAllByOwnerId(Long ownerId) {
-        getUser(ownerId);
+        userIds.requireExists(ownerId);
         List<ItemRequestDto> req = repository.findItemRequestsByRequester_IdOrderByCreated(ownerId)
                 .stream()
                 .map(ItemRequestMapper::toItemRequestDto)
                 .collect(Collectors.toList());
-        req.forEach(itemRequestDto -> itemRequestDto.setItems(getItemsDtoByRequestId(itemRequestDto.getId())));
+        fillItems(req);
         log.info("Получен список запросов user {}", ownerId);
         return req;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<ItemRequestDto> findAllByCursor(Long userId, String cursor, Integer size) {
+        KeysetCursor.requirePageSize(size);
+        userIds.requireExists(userId);
+        PageRequest limit = PageRequest.of(0, size + 1);
+        Optional<KeysetCursor> after = KeysetCursor.decode(cursor);
+        List<ItemRequest> requests = after
+                .map(c -> repository.findFeedAfter(userId, c.getTimestamp(), c.getId(), limit))
+                .orElseGet(() -> repository.findFeedStart(userId, limit));
+        boolean hasNext = requests.size() > size;
+        List<ItemRequestDto> requestDtos = requests.stream()
+                .limit(size)
+                .map(ItemRequestMapper::toItemRequestDto)
+                .collect(Collectors.toList());
+        fillItems(requestDtos);
+        log.info("Получен запрос на получение запросов по курсору {} от user {}", cursor, userId);
+        return new SliceImpl<>(requestDtos, PageRequest.of(0, size), hasNext);
+    }
+
+    /**
+     * Подставляет вещи, созданные в ответ на запросы, одним запросом на весь список.
+     */
+    private void fillItems(List<ItemRequestDto> requestDtos) {
+        if (requestDtos.isEmpty()) {
+            return;
+        }
+        Map<Long, List<ItemDto>> items = itemRepository.findAllByRequestIdIn(requestDtos.stream()
+                        .map(ItemRequestDto::getId)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.groupingBy(Item::getRequestId,
+                        Collectors.mapping(ItemMapper::toItemDto, Collectors.toList())));
+        requestDtos.forEach(requestDto -> requestDto.setItems(
+                items.getOrDefault(requestDto.getId(), new ArrayList<>())));
+    }
+
     private User getUser(Long id) {
         return userRepository.findById(id)
                 .orElseThrow(() -> new UserNotFoundException("Пользователь не найден"));
@@ -83,10 +132,4 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     private ItemRequest getRequest(Long id) {
         return repository.findById(id).orElseThrow(() -> new RequestNotFoundException("Запрос на вещь не найден"));
     }
-
-    private List<ItemDto> getItemsDtoByRequestId(long requestId) {
-        return itemRepository.findItemsByRequestId(requestId).stream()
-                .map(ItemMapper::toItemDto)
-                .collect(Collectors.toList());
-    }
 }
\ No newline at end of file
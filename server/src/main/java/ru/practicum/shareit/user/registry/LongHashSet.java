@@ -0,0 +1,109 @@
+package ru.practicum.shareit.user.registry;
+
+/**
+ * Множество положительных long без упаковки в Long: открытая адресация с линейным пробированием.
+ * Ноль означает пустую ячейку. Не потокобезопасно.
+ */
+class LongHashSet {
+    private static final long EMPTY = 0L;
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+
+    private long[] table;
+    private int bits;
+    private int size;
+
+    LongHashSet() {
+        this(16);
+    }
+
+    LongHashSet(int expectedSize) {
+        bits = 4;
+        while ((1 << bits) * 3 / 4 < expectedSize) {
+            bits++;
+        }
+        table = new long[1 << bits];
+    }
+
+    boolean contains(long value) {
+        if (value <= 0) {
+            return false;
+        }
+        int mask = table.length - 1;
+        for (int i = slot(value); ; i = (i + 1) & mask) {
+            long current = table[i];
+            if (current == value) {
+                return true;
+            }
+            if (current == EMPTY) {
+                return false;
+            }
+        }
+    }
+
+    boolean add(long value) {
+        if (value <= 0) {
+            return false;
+        }
+        if ((size + 1) > table.length * 3 / 4) {
+            resize();
+        }
+        int mask = table.length - 1;
+        for (int i = slot(value); ; i = (i + 1) & mask) {
+            long current = table[i];
+            if (current == value) {
+                return false;
+            }
+            if (current == EMPTY) {
+                table[i] = value;
+                size++;
+                return true;
+            }
+        }
+    }
+
+    boolean remove(long value) {
+        if (value <= 0) {
+            return false;
+        }
+        int mask = table.length - 1;
+        int i = slot(value);
+        while (table[i] != value) {
+            if (table[i] == EMPTY) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        // сдвигаем следующие элементы цепочки на освободившееся место, чтобы поиск не обрывался на дыре
+        int gap = i;
+        for (int j = (gap + 1) & mask; table[j] != EMPTY; j = (j + 1) & mask) {
+            int home = slot(table[j]);
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                table[gap] = table[j];
+                gap = j;
+            }
+        }
+        table[gap] = EMPTY;
+        size--;
+        return true;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int slot(long value) {
+        return (int) ((value * GOLDEN_RATIO) >>> (64 - bits));
+    }
+
+    private void resize() {
+        long[] old = table;
+        bits++;
+        table = new long[1 << bits];
+        size = 0;
+        for (long value : old) {
+            if (value != EMPTY) {
+                add(value);
+            }
+        }
+    }
+}
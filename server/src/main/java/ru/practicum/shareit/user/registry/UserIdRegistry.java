@@ -0,0 +1,124 @@
+package ru.practicum.shareit.user.registry;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Идентификаторы существующих пользователей для проверки заголовка X-Sharer-User-Id без загрузки сущности.
+ * Если id нет в памяти (например, пользователь создан другим экземпляром сервера), проверка идет в БД.
+ * Удаление пользователя видно только экземпляру, который его выполнил: на остальных id остается в памяти
+ * до перезапуска, и чтение от имени удаленного пользователя проходит проверку, возвращая пустые списки.
+ * Поэтому изменяющие операции проверяют пользователя через requireStored.
+ */
+@Slf4j
+@Component
+public class UserIdRegistry {
+    private final UserRepository userRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongHashSet ids = new LongHashSet();
+
+    public UserIdRegistry(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    public void requireExists(long userId) {
+        if (contains(userId)) {
+            return;
+        }
+        if (!userRepository.existsById(userId)) {
+            throw new UserNotFoundException("Пользователь не найден");
+        }
+        add(userId);
+    }
+
+    /**
+     * Проверка для изменяющих операций: всегда обращается к БД и забывает id удаленного пользователя.
+     */
+    public void requireStored(long userId) {
+        if (!userRepository.existsById(userId)) {
+            remove(userId);
+            throw new UserNotFoundException("Пользователь не найден");
+        }
+        add(userId);
+    }
+
+    public boolean contains(long userId) {
+        lock.readLock().lock();
+        try {
+            return ids.contains(userId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void add(long userId) {
+        lock.writeLock().lock();
+        try {
+            ids.add(userId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long userId) {
+        lock.writeLock().lock();
+        try {
+            ids.remove(userId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Добавляет id после фиксации текущей транзакции или сразу, если транзакции нет.
+     */
+    public void addAfterCommit(long userId) {
+        afterCommit(() -> add(userId));
+    }
+
+    /**
+     * Удаляет id после фиксации текущей транзакции или сразу, если транзакции нет.
+     */
+    public void removeAfterCommit(long userId) {
+        afterCommit(() -> remove(userId));
+    }
+
+    public void addAll(Collection<Long> userIds) {
+        lock.writeLock().lock();
+        try {
+            userIds.forEach(ids::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ids.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.user.registry;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.List;
+
+@Slf4j
+@Component
+public class UserIdRegistryLoader {
+    private final UserRepository userRepository;
+    private final UserIdRegistry userIds;
+    private final int batchSize;
+
+    public UserIdRegistryLoader(UserRepository userRepository, UserIdRegistry userIds,
+                                @Value("${shareit.users.load-batch-size:10000}") int batchSize) {
+        this.userRepository = userRepository;
+        this.userIds = userIds;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long afterId = 0;
+        List<Long> batch;
+        do {
+            batch = userRepository.findIdsAfter(afterId, PageRequest.of(0, batchSize));
+            userIds.addAll(batch);
+            if (!batch.isEmpty()) {
+                afterId = batch.get(batch.size() - 1);
+            }
+        } while (batch.size() == batchSize);
+        log.info("Загружены идентификаторы пользователей: {}", userIds.size());
+    }
+}
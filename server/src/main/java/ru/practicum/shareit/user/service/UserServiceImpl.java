@@ -3,14 +3,16 @@ package ru.practicum.shareit.user.service;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.UserExistsException;
 import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.item.version.ItemVersionRegistry;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.registry.UserIdRegistry;
 import ru.practicum.shareit.user.repository.UserRepository;
 
-import javax.transaction.Transactional;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -19,20 +21,27 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository repository;
     private final UserMapper mapper;
+    private final UserIdRegistry userIds;
+    private final ItemVersionRegistry itemVersions;
 
     @Autowired
-    public UserServiceImpl(UserRepository userRepository, UserMapper mapper) {
+    public UserServiceImpl(UserRepository userRepository, UserMapper mapper, UserIdRegistry userIds,
+                           ItemVersionRegistry itemVersions) {
         this.repository = userRepository;
         this.mapper = mapper;
+        this.userIds = userIds;
+        this.itemVersions = itemVersions;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<UserDto> getUsers() {
         return repository.findAll().stream()
                 .map(UserMapper::toUserDto).collect(Collectors.toList());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public User getUserById(final Long id) {
         return repository.findById(id)
                 .orElseThrow(() -> new UserNotFoundException("Пользователь не найден"));
@@ -42,7 +51,9 @@ public class UserServiceImpl implements UserService {
     @Transactional
     public UserDto create(UserDto userDto) {
         try {
-            return mapper.toUserDto(repository.save(mapper.toUser(userDto)));
+            User saved = repository.save(mapper.toUser(userDto));
+            userIds.addAfterCommit(saved.getId());
+            return mapper.toUserDto(saved);
         } catch (DataIntegrityViolationException e) {
             throw new UserExistsException("Пользователь с E-mail=" +
                     userDto.getEmail() + " уже существует!");
@@ -69,13 +80,17 @@ public class UserServiceImpl implements UserService {
                 throw new UserExistsException("Пользователь с E-mail=" + userUpdate.getEmail() + " уже существует!");
             }
         }
-        return mapper.toUserDto(repository.save(userUpdate));
+        User saved = repository.save(userUpdate);
+        itemVersions.invalidateAllAfterCommit();
+        return mapper.toUserDto(saved);
     }
 
     @Override
+    @Transactional
     public void delete(Long userId) {
-        repository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("Пользователь не найден"));
+        userIds.requireStored(userId);
         repository.deleteById(userId);
+        userIds.removeAfterCommit(userId);
+        itemVersions.invalidateAllAfterCommit();
     }
 }
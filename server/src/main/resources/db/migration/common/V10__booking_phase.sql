@@ -0,0 +1,17 @@
+-- Фаза бронирования (FUTURE, CURRENT, PAST): списки по времени выбираются по равенству, а не по диапазону дат.
+-- Дальше фазу сдвигает BookingPhaseScheduler, здесь она один раз вычисляется для существующих строк
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS phase VARCHAR(16);
+UPDATE bookings SET phase = CASE
+    WHEN end_date <= LOCALTIMESTAMP THEN 'PAST'
+    WHEN start_date <= LOCALTIMESTAMP THEN 'CURRENT'
+    ELSE 'FUTURE'
+END
+WHERE phase IS NULL;
+ALTER TABLE bookings ALTER COLUMN phase SET NOT NULL;
+
+-- findPage/findSlice(BOOKER, CURRENT/FUTURE/PAST): booker_id = ? and phase = ? order by start_date desc, id desc
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_phase_start ON bookings (booker_id, phase, start_date, id);
+-- findPage/findSlice(OWNER, CURRENT/FUTURE/PAST) через items.owner_id
+CREATE INDEX IF NOT EXISTS idx_bookings_item_phase_start ON bookings (item_id, phase, start_date, id);
+-- BookingPhaseScheduler: загрузка очереди и догоняющие обновления по phase in (...) and end_date <= ?
+CREATE INDEX IF NOT EXISTS idx_bookings_phase_end ON bookings (phase, end_date);
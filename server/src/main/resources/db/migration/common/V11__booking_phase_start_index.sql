@@ -0,0 +1,3 @@
+-- BookingPhaseScheduler.catchUp каждые phase-catch-up-delay-ms: phase = 'FUTURE' and start_date <= ?
+-- (phase in (...) and end_date <= ? читается по idx_bookings_phase_end)
+CREATE INDEX IF NOT EXISTS idx_bookings_phase_start ON bookings (phase, start_date);
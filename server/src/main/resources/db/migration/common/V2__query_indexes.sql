@@ -0,0 +1,25 @@
+-- Индексы под запросы репозиториев: ведущие колонки - условия равенства, затем колонки сортировки и диапазона.
+
+-- BookingRepository.findByBookerId*, findSlice(BOOKER): booker_id = ? order by start_date desc, id desc
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date, id);
+-- findByBookerIdAndStatus, findSlice(BOOKER, WAITING/REJECTED)
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_status_start ON bookings (booker_id, status, start_date);
+-- findByItem_Owner_Id* (через items.owner_id), findLastBookingsByItemIds, findFirstByItem_IdAndStartBefore...
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start ON bookings (item_id, start_date, id);
+-- findNextBookingsByItemIds, findFirstByItem_IdAndStartAfterAndStatus..., проверка права на отзыв
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_start ON bookings (item_id, status, start_date);
+-- findReservations: status in (...) and end_date > ?
+CREATE INDEX IF NOT EXISTS idx_bookings_status_end ON bookings (status, end_date);
+
+-- ItemRepository.findAllByOwnerId, findByItem_Owner_Id*
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (owner_id);
+-- ItemRepository.findItemsByRequestId, findAllByRequestIdIn
+CREATE INDEX IF NOT EXISTS idx_items_request ON items (request_id);
+
+-- CommentRepository.findByItemIdIn: item_id in (...) order by created
+CREATE INDEX IF NOT EXISTS idx_comments_item_created ON comments (item_id, created);
+
+-- RequestRepository.findItemRequestsByRequester_IdOrderByCreated
+CREATE INDEX IF NOT EXISTS idx_requests_requester_created ON requests (requester_id, created);
+-- RequestRepository.findFeedStart/findFeedAfter: order by created, id
+CREATE INDEX IF NOT EXISTS idx_requests_created_id ON requests (created, id);
@@ -0,0 +1,2 @@
+-- Последовательность для выдачи id бронирований блоками (pooled-lo, шаг 50) и пакетной вставки
+CREATE SEQUENCE IF NOT EXISTS bookings_pooled_id_seq START WITH 1 INCREMENT BY 50;
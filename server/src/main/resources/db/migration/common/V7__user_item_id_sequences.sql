@@ -0,0 +1,3 @@
+-- Последовательности для выдачи id пользователей и вещей блоками (pooled-lo, шаг 50) при импорте
+CREATE SEQUENCE IF NOT EXISTS users_pooled_id_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_pooled_id_seq START WITH 1 INCREMENT BY 50;
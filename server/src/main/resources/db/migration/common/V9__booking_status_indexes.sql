@@ -0,0 +1,6 @@
+-- Списки по статусу (WAITING, REJECTED, APPROVED, CANCELED) сортируются по start_date desc, id desc:
+-- id в конце индекса позволяет читать страницу и страницу по курсору прямо из индекса, без сортировки
+DROP INDEX IF EXISTS idx_bookings_booker_status_start;
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_status_start ON bookings (booker_id, status, start_date, id);
+DROP INDEX IF EXISTS idx_bookings_item_status_start;
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_start ON bookings (item_id, status, start_date, id);
@@ -0,0 +1,2 @@
+-- Уже созданные бронирования получили id из identity-колонки: следующий блок начинается после них
+SELECT setval('bookings_pooled_id_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM bookings), false);
@@ -0,0 +1,3 @@
+-- Следующие блоки id начинаются после уже созданных пользователей и вещей
+SELECT setval('users_pooled_id_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM users), false);
+SELECT setval('items_pooled_id_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM items), false);
@@ -0,0 +1,226 @@
+package ru.practicum.shareit;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingPhase;
+import ru.practicum.shareit.booking.BookingRole;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.RequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверяет по EXPLAIN, что запросы репозиториев на заполненной базе читают таблицы по индексам.
+ * Не проверяются поиск по подстроке (like '%text%') и лента чужих запросов (requester_id <> ?):
+ * эти условия индексом не ограничиваются.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ru.practicum.shareit.QueryPlanTest$SqlRecorder")
+@AutoConfigureTestDatabase
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanTest {
+    private static final String TABLE_SCAN = "tableScan";
+
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private RequestRepository requestRepository;
+
+    private final LocalDateTime now = LocalDateTime.now();
+    private User user;
+    private Item item;
+    private ItemRequest request;
+
+    @BeforeAll
+    void seed() throws SQLException {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            users.add(new User(null, "user" + i, "user" + i + "@mail.ru"));
+        }
+        users = userRepository.saveAll(users);
+        user = users.get(0);
+
+        List<ItemRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            requests.add(new ItemRequest(null, "request" + i, users.get(i % users.size()), now.minusHours(i)));
+        }
+        requests = requestRepository.saveAll(requests);
+        request = requests.get(0);
+
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            items.add(new Item(null, "item" + i, "description" + i, true, users.get(i % users.size()),
+                    i % 5 == 0 ? requests.get(i % requests.size()).getId() : null));
+        }
+        items = itemRepository.saveAll(items);
+        item = items.get(0);
+
+        List<Booking> bookings = new ArrayList<>();
+        List<Comment> comments = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            LocalDateTime start = now.plusHours(i % 480 - 240);
+            bookings.add(new Booking(null, start, start.plusDays(1), items.get(i % items.size()),
+                    users.get((i / 7) % users.size()), Status.values()[i % Status.values().length]));
+            if (i % 5 == 0) {
+                comments.add(new Comment(null, "comment" + i, items.get(i % items.size()),
+                        users.get(i % users.size()), start));
+            }
+        }
+        bookingRepository.saveAll(bookings);
+        commentRepository.saveAll(comments);
+
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE");
+        }
+    }
+
+    @Test
+    void bookerQueries_useIndexes() {
+        long id = user.getId();
+        for (BookingState state : BookingState.values()) {
+            assertIndexed(() -> bookingRepository.findPage(BookingRole.BOOKER, id, state, 0, 20));
+        }
+        assertIndexed(() -> bookingRepository.findSlice(BookingRole.BOOKER, id, BookingState.ALL,
+                new KeysetCursor(now, Long.MAX_VALUE), 20));
+    }
+
+    @Test
+    void ownerQueries_useIndexes() {
+        long id = user.getId();
+        for (BookingState state : BookingState.values()) {
+            assertIndexed(() -> bookingRepository.findPage(BookingRole.OWNER, id, state, 0, 20));
+        }
+        assertIndexed(() -> bookingRepository.findSlice(BookingRole.OWNER, id, BookingState.PAST,
+                null, 20));
+    }
+
+    @Test
+    void itemBookingQueries_useIndexes() {
+        long id = item.getId();
+        assertIndexed(() -> bookingRepository.findFirstByItem_IdAndStartAfterAndStatusOrderByStartAsc(
+                id, now, Status.APPROVED));
+        assertIndexed(() -> bookingRepository.findFirstByItem_IdAndStartBeforeOrderByEndDesc(id, now));
+        assertIndexed(() -> bookingRepository.findFirstByItem_IdAndBooker_IdAndEndIsBeforeAndStatus(
+                id, user.getId(), now, Status.APPROVED));
+        assertIndexed(() -> bookingRepository.findLastBookingsByItemIds(Set.of(id, id + 1), now));
+        assertIndexed(() -> bookingRepository.findNextBookingsByItemIds(Set.of(id, id + 1), now, Status.APPROVED));
+        assertIndexed(() -> bookingRepository.findReservations(List.of(Status.WAITING, Status.APPROVED), now));
+        assertIndexed(() -> bookingRepository.findPhaseSchedules(List.of(BookingPhase.FUTURE, BookingPhase.CURRENT)));
+    }
+
+    @Test
+    void itemCommentAndRequestQueries_useIndexes() {
+        assertIndexed(() -> itemRepository.findAllByOwnerId(user.getId()));
+        assertIndexed(() -> itemRepository.findItemsByRequestId(request.getId()));
+        assertIndexed(() -> itemRepository.findAllByRequestIdIn(Set.of(request.getId())));
+        assertIndexed(() -> itemRepository.findIndexedItemsAfter(item.getId(), PageRequest.of(0, 100)));
+        assertIndexed(() -> commentRepository.findByItemIdIn(Set.of(item.getId())));
+        assertIndexed(() -> requestRepository.findItemRequestsByRequester_IdOrderByCreated(user.getId()));
+    }
+
+    private void assertIndexed(Runnable query) {
+        SqlRecorder.start();
+        try {
+            query.run();
+        } finally {
+            SqlRecorder.stop();
+        }
+        List<String> statements = SqlRecorder.recorded();
+        assertFalse(statements.isEmpty(), "Запрос не выполнил ни одного SQL");
+        for (String sql : statements) {
+            String plan = explain(sql);
+            assertFalse(plan.contains(TABLE_SCAN), "Полный просмотр таблицы:\n" + plan);
+        }
+    }
+
+    private String explain(String sql) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            // план строится при подготовке запроса, значения параметров на него не влияют
+            int parameters = statement.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameters; i++) {
+                statement.setObject(i, null);
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString(1)).append('\n');
+                }
+            }
+            return plan.toString();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Не удалось получить план запроса: " + sql, e);
+        }
+    }
+
+    /**
+     * Запоминает SQL, который Hibernate отправляет в базу, пока включена запись.
+     */
+    public static class SqlRecorder implements StatementInspector {
+        private static final List<String> STATEMENTS = new ArrayList<>();
+        private static volatile boolean recording;
+
+        static synchronized void start() {
+            STATEMENTS.clear();
+            recording = true;
+        }
+
+        static synchronized void stop() {
+            recording = false;
+        }
+
+        static synchronized List<String> recorded() {
+            return new ArrayList<>(STATEMENTS);
+        }
+
+        @Override
+        public String inspect(String sql) {
+            if (recording && sql.trim().toLowerCase().startsWith("select")) {
+                synchronized (SqlRecorder.class) {
+                    STATEMENTS.add(sql);
+                }
+            }
+            return sql;
+        }
+    }
+}
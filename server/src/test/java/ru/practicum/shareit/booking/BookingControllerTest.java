@@ -7,6 +7,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
 
@@ -19,10 +20,14 @@ import ru.practicum.shareit.user.dto.UserDto;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -66,6 +71,26 @@ class BookingControllerTest {
         verify(bookingService).add(1L, bookingInputDto);
     }
 
+    @SneakyThrows
+    @Test
+    void addBookings_whenOneEntryFailed_thenResultPerEntry() {
+        List<BookingInputDto> inputs = List.of(bookingInputDto, new BookingInputDto(2L, start, end));
+        List<BookingBatchResultDto> results = List.of(BookingBatchResultDto.created(0, bookingDto),
+                BookingBatchResultDto.failed(1, "Вещь не найдена"));
+        when(bookingService.addAll(1L, inputs)).thenReturn(results);
+
+        String result = mvc.perform(post("/bookings/batch")
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(inputs)))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals(objectMapper.writeValueAsString(results), result);
+    }
+
     @SneakyThrows
     @Test
     void addBooking_whenBookingInputDtoDateTimeNotValid_thenValidationException() {
@@ -156,4 +181,27 @@ class BookingControllerTest {
                         .queryParam("state", "DESC"))
                 .andExpect(status().isBadRequest());
     }
-}
\ No newline at end of file
+
+    @SneakyThrows
+    @Test
+    void exportBookingsOwner_thenOneBookingPerLine() {
+        BookingDto second = new BookingDto(2L, start, end, itemDto, bookerDto, Status.APPROVED);
+        doAnswer(invocation -> {
+            Consumer<BookingDto> consumer = invocation.getArgument(1);
+            consumer.accept(bookingDto);
+            consumer.accept(second);
+            return 2L;
+        }).when(bookingService).exportForOwner(eq(2L), any());
+
+        String result = mvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", 2))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals(objectMapper.writeValueAsString(bookingDto) + "\n"
+                + objectMapper.writeValueAsString(second) + "\n", result);
+    }
+}
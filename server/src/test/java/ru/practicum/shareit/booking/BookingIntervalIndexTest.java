@@ -0,0 +1,73 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.availability.BookingIntervalIndex;
+import ru.practicum.shareit.booking.availability.Reservation;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BookingIntervalIndexTest {
+
+    private final BookingIntervalIndex index = new BookingIntervalIndex();
+    private final LocalDateTime base = LocalDateTime.now().plusDays(1).withNano(0);
+
+    @Test
+    void isAvailable_whenNoBookings_thenTrue() {
+        assertTrue(index.isAvailable(1L, base, base.plusDays(1)));
+    }
+
+    @Test
+    void tryReserve_whenIntervalsOverlap_thenEmpty() {
+        assertTrue(index.tryReserve(1L, base, base.plusDays(2)).isPresent());
+
+        assertTrue(index.tryReserve(1L, base.plusDays(1), base.plusDays(3)).isEmpty());
+        assertTrue(index.tryReserve(1L, base.minusDays(1), base.plusHours(1)).isEmpty());
+        assertTrue(index.tryReserve(1L, base.plusHours(1), base.plusHours(2)).isEmpty());
+    }
+
+    @Test
+    void tryReserve_whenIntervalsTouch_thenReserved() {
+        assertTrue(index.tryReserve(1L, base, base.plusDays(1)).isPresent());
+
+        assertTrue(index.tryReserve(1L, base.plusDays(1), base.plusDays(2)).isPresent());
+        assertTrue(index.tryReserve(1L, base.minusDays(1), base).isPresent());
+        assertTrue(index.tryReserve(2L, base, base.plusDays(1)).isPresent());
+    }
+
+    @Test
+    void isAvailable_whenLongBookingCoversLaterShortOnes_thenUsesMaxEnd() {
+        index.rebuild(List.of(
+                new Reservation(1L, 1L, base, base.plusDays(10)),
+                new Reservation(1L, 2L, base.plusDays(1), base.plusDays(2)),
+                new Reservation(1L, 3L, base.plusDays(3), base.plusDays(4))));
+
+        assertFalse(index.isAvailable(1L, base.plusDays(5), base.plusDays(6)));
+        assertTrue(index.isAvailable(1L, base.plusDays(10), base.plusDays(11)));
+    }
+
+    @Test
+    void release_whenReservationReleased_thenIntervalIsFree() {
+        Optional<Reservation> reservation = index.tryReserve(1L, base, base.plusDays(1));
+        assertTrue(reservation.isPresent());
+
+        index.release(reservation.get());
+
+        assertTrue(index.isAvailable(1L, base, base.plusDays(1)));
+    }
+
+    @Test
+    void remove_whenBookingRemoved_thenOtherBookingsRemain() {
+        index.rebuild(List.of(
+                new Reservation(1L, 1L, base, base.plusDays(5)),
+                new Reservation(1L, 2L, base.plusDays(6), base.plusDays(7))));
+
+        index.remove(1L, 1L);
+
+        assertTrue(index.isAvailable(1L, base, base.plusDays(5)));
+        assertFalse(index.isAvailable(1L, base.plusDays(6), base.plusDays(7)));
+    }
+}
@@ -0,0 +1,135 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.phase.BookingPhaseQueue;
+import ru.practicum.shareit.booking.phase.BookingPhaseScheduler;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase
+public class BookingPhaseSchedulerTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final BookingPhaseQueue phaseQueue = new BookingPhaseQueue();
+    private BookingPhaseScheduler scheduler;
+    private final LocalDateTime now = LocalDateTime.now();
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void beforeEach() {
+        scheduler = new BookingPhaseScheduler(bookingRepository, phaseQueue, transactionManager, 2);
+        User owner = userRepository.save(new User(null, "owner", "owner@email.ru"));
+        booker = userRepository.save(new User(null, "booker", "booker@email.ru"));
+        item = itemRepository.save(new Item(null, "item", "desc", true, owner, null));
+    }
+
+    @Test
+    void save_thenPhaseComputedFromDates() {
+        assertEquals(BookingPhase.PAST, save(now.minusDays(2), now.minusDays(1)).getPhase());
+        assertEquals(BookingPhase.CURRENT, save(now.minusHours(1), now.plusHours(1)).getPhase());
+        assertEquals(BookingPhase.FUTURE, save(now.plusHours(1), now.plusHours(2)).getPhase());
+    }
+
+    @Test
+    void pollDue_whenStartAndEndPassed_thenLatestPhaseOnly() {
+        phaseQueue.schedule(1L, now.plusHours(1), now.plusHours(3), now);
+        phaseQueue.schedule(2L, now.plusHours(2), now.plusDays(1), now);
+        phaseQueue.schedule(3L, now.minusHours(1), now.plusHours(5), now);
+
+        Map<Long, BookingPhase> due = phaseQueue.pollDue(now.plusHours(4), 10);
+
+        assertEquals(Map.of(1L, BookingPhase.PAST, 2L, BookingPhase.CURRENT), due);
+        assertEquals(2, phaseQueue.size());
+        assertEquals(Map.of(3L, BookingPhase.PAST), phaseQueue.pollDue(now.plusHours(5), 10));
+        assertEquals(Map.of(2L, BookingPhase.PAST), phaseQueue.pollDue(now.plusDays(1), 10));
+        assertEquals(0, phaseQueue.size());
+    }
+
+    @Test
+    void advance_whenTransitionsDue_thenPhasesStoredInBatches() {
+        List<Booking> bookings = List.of(
+                save(now.plusHours(1), now.plusHours(2)),
+                save(now.plusHours(1), now.plusDays(1)),
+                save(now.plusHours(1), now.plusDays(1)));
+        // даты в будущем, а переходы поставлены как наступившие: фаза меняется только очередью
+        LocalDateTime past = now.minusDays(1);
+        phaseQueue.schedule(bookings.get(0).getId(), past.minusHours(2), past.minusHours(1), past.minusDays(1));
+        phaseQueue.schedule(bookings.get(1).getId(), past, now.plusDays(1), past.minusDays(1));
+        phaseQueue.schedule(bookings.get(2).getId(), past, now.plusDays(1), past.minusDays(1));
+
+        scheduler.advance();
+
+        assertEquals(Set.of(bookings.get(0).getId()), ids(BookingState.PAST));
+        assertEquals(Set.of(bookings.get(1).getId(), bookings.get(2).getId()), ids(BookingState.CURRENT));
+        assertEquals(2, phaseQueue.size());
+    }
+
+    @Test
+    void reload_whenPhasesStale_thenCaughtUpAndQueued() {
+        Booking ended = save(now.minusDays(2), now.minusDays(1));
+        Booking started = save(now.minusHours(1), now.plusHours(1));
+        Booking future = save(now.plusHours(1), now.plusHours(2));
+        bookingRepository.updatePhase(List.of(ended.getId(), started.getId()), BookingPhase.FUTURE);
+
+        scheduler.reload();
+
+        assertEquals(Set.of(ended.getId()), ids(BookingState.PAST));
+        assertEquals(Set.of(started.getId()), ids(BookingState.CURRENT));
+        assertEquals(Set.of(future.getId()), ids(BookingState.FUTURE));
+        // окончание started, начало и окончание future
+        assertEquals(3, phaseQueue.size());
+    }
+
+    @Test
+    void catchUpMissed_whenBookingNotQueued_thenPhaseAdvancedFromDatabase() {
+        // бронирование записано другим экземпляром: в очереди этого экземпляра его нет
+        Booking started = save(now.minusHours(1), now.plusHours(1));
+        bookingRepository.updatePhase(List.of(started.getId()), BookingPhase.FUTURE);
+
+        scheduler.catchUpMissed();
+
+        assertEquals(Set.of(started.getId()), ids(BookingState.CURRENT));
+        assertEquals(0, phaseQueue.size());
+    }
+
+    private Set<Long> ids(BookingState state) {
+        return bookingRepository.findPage(BookingRole.BOOKER, booker.getId(), state, 0, 20).stream()
+                .map(BookingView::getId)
+                .collect(Collectors.toSet());
+    }
+
+    private Booking save(LocalDateTime start, LocalDateTime end) {
+        return bookingRepository.save(new Booking(null, start, end, item, booker, Status.APPROVED));
+    }
+}
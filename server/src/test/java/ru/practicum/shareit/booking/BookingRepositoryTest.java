@@ -6,22 +6,32 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Slice;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.availability.BookingIntervalIndex;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.phase.BookingPhaseQueue;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.BookingNotFoundException;
 import ru.practicum.shareit.exception.UnknownStatusException;
 import ru.practicum.shareit.item.model.Item;
 
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.summary.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.summary.ItemBookingSummaryService;
+import ru.practicum.shareit.item.version.ItemVersionRegistry;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.registry.UserIdRegistry;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
@@ -41,14 +51,18 @@ public class BookingRepositoryTest {
     @Autowired
     private ItemRepository itemRepository;
 
+    @Autowired
+    private ItemBookingSummaryRepository summaryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     private final LocalDateTime start = LocalDateTime.now().plusHours(1);
     private final LocalDateTime end = LocalDateTime.now().plusDays(1);
     private User booker;
     private User owner;
     private Item item;
     private Booking booking;
-    Sort sortDesc = Sort.by(Sort.Direction.DESC, "start");
-    Pageable pageable = PageRequest.of(0 / 20, 20, sortDesc);
 
     @BeforeEach
     void beforeEach() {
@@ -68,40 +82,40 @@ public class BookingRepositoryTest {
 
     @Test
     @Transactional
-    void findByItem_Owner_IdAndStatusIsWaiting() {
+    void findPage_whenOwnerAndWaiting() {
         booking.setStatus(Status.WAITING);
         bookingRepository.save(booking);
-        List<Booking> actual = bookingRepository.findByItem_Owner_IdAndStatus(
-                owner.getId(), Status.WAITING, pageable).toList();
+        List<BookingView> actual = bookingRepository.findPage(
+                BookingRole.OWNER, owner.getId(), BookingState.WAITING, 0, 20);
 
         assertThat(actual.size(), equalTo(1));
-        assertThat(actual.get(0).getBooker(), equalTo(booking.getBooker()));
+        assertThat(actual.get(0).getBookerId(), equalTo(booking.getBooker().getId()));
         assertThat(actual.get(0).getStatus(), equalTo(booking.getStatus()));
     }
 
     @Test
     @Transactional
-    void findByItem_Owner_IdAndStatusIsApproved() {
+    void findPage_whenOwnerAndApproved() {
         booking.setStatus(Status.APPROVED);
         bookingRepository.save(booking);
-        List<Booking> actual = bookingRepository.findByItem_Owner_IdAndStatus(
-                owner.getId(), Status.APPROVED, pageable).toList();
+        List<BookingView> actual = bookingRepository.findPage(
+                BookingRole.OWNER, owner.getId(), BookingState.APPROVED, 0, 20);
 
         assertThat(actual.size(), equalTo(1));
-        assertThat(actual.get(0).getBooker(), equalTo(booking.getBooker()));
+        assertThat(actual.get(0).getBookerId(), equalTo(booking.getBooker().getId()));
         assertThat(actual.get(0).getStatus(), equalTo(booking.getStatus()));
     }
 
     @Test
     @Transactional
-    void findByItem_Owner_IdAndStatusIsCanceled() {
+    void findPage_whenOwnerAndCanceled() {
         booking.setStatus(Status.CANCELED);
         bookingRepository.save(booking);
-        List<Booking> actual = bookingRepository.findByItem_Owner_IdAndStatus(
-                owner.getId(), Status.CANCELED, pageable).toList();
+        List<BookingView> actual = bookingRepository.findPage(
+                BookingRole.OWNER, owner.getId(), BookingState.CANCELED, 0, 20);
 
         assertThat(actual.size(), equalTo(1));
-        assertThat(actual.get(0).getBooker(), equalTo(booking.getBooker()));
+        assertThat(actual.get(0).getBookerId(), equalTo(booking.getBooker().getId()));
         assertThat(actual.get(0).getStatus(), equalTo(booking.getStatus()));
     }
 
@@ -109,7 +123,7 @@ public class BookingRepositoryTest {
     void testGetAllBookingsWithUnknownStateThrowsException() {
         User user = userRepository.save(new User(1L, "user", "user@email.ru"));
 
-        BookingServiceImpl bookingService = new BookingServiceImpl(userRepository, itemRepository, bookingRepository);
+        BookingServiceImpl bookingService = bookingService();
 
         assertThrows(UnknownStatusException.class, () -> {
             bookingService.getAllBookings(user.getId(), "UNKNOWN_STATE", 0, 10);
@@ -125,7 +139,7 @@ public class BookingRepositoryTest {
 
         Booking booking = bookingRepository.save(new Booking(1L, LocalDateTime.now(), LocalDateTime.now().plusDays(1), item, user1, Status.WAITING));
 
-        BookingServiceImpl bookingService = new BookingServiceImpl(userRepository, itemRepository, bookingRepository);
+        BookingServiceImpl bookingService = bookingService();
 
         assertThrows(BookingNotFoundException.class, () -> {
             bookingService.getBookingById(user2.getId(), booking.getId());
@@ -172,59 +186,146 @@ public class BookingRepositoryTest {
 
     @Test
     @Transactional
-    void findByItem_Owner_Id() {
-        List<Booking> actual = bookingRepository.findByItem_Owner_Id(
-                owner.getId(), pageable).toList();
+    void findLastAndNextBookingsByItemIds() {
+        Item secondItem = itemRepository.save(new Item(2L, "second", "desc", true, owner, null));
+        booking.setStart(start.minusHours(3));
+        booking.setEnd(start.minusHours(2));
+        bookingRepository.save(booking);
+        Booking next = bookingRepository.save(new Booking(null, start.plusHours(2), end, item, booker,
+                Status.APPROVED));
+        Booking secondNext = bookingRepository.save(new Booking(null, start.plusHours(1), end, secondItem,
+                booker, Status.APPROVED));
+        bookingRepository.save(new Booking(null, start.plusHours(3), end, secondItem, booker, Status.APPROVED));
+
+        List<Booking> last = bookingRepository.findLastBookingsByItemIds(
+                List.of(item.getId(), secondItem.getId()), start);
+        List<Booking> nextBookings = bookingRepository.findNextBookingsByItemIds(
+                List.of(item.getId(), secondItem.getId()), start, Status.APPROVED);
+
+        assertThat(last.size(), equalTo(1));
+        assertThat(last.get(0).getId(), equalTo(booking.getId()));
+        assertThat(nextBookings.size(), equalTo(2));
+        assertThat(nextBookings.get(0).getId(), equalTo(next.getId()));
+        assertThat(nextBookings.get(1).getId(), equalTo(secondNext.getId()));
+    }
+
+    @Test
+    @Transactional
+    void findSliceByCursor() {
+        Booking second = bookingRepository.save(new Booking(null, start.plusHours(1), end, item, booker,
+                Status.WAITING));
+        Booking third = bookingRepository.save(new Booking(null, start.plusHours(2), end, item, booker,
+                Status.WAITING));
+
+        Slice<BookingView> first = bookingRepository.findSlice(BookingRole.BOOKER, booker.getId(), BookingState.ALL,
+                null, 2);
+        BookingView last = first.getContent().get(1);
+        Slice<BookingView> next = bookingRepository.findSlice(BookingRole.BOOKER, booker.getId(), BookingState.ALL,
+                new KeysetCursor(last.getStart(), last.getId()), 2);
+
+        assertThat(first.hasNext(), equalTo(true));
+        assertThat(first.getContent().get(0).getId(), equalTo(third.getId()));
+        assertThat(last.getId(), equalTo(second.getId()));
+        assertThat(next.hasNext(), equalTo(false));
+        assertThat(next.getContent().size(), equalTo(1));
+        assertThat(next.getContent().get(0).getId(), equalTo(booking.getId()));
+    }
+
+    @Test
+    @Transactional
+    void findPage_whenOwnerAndAll() {
+        List<BookingView> actual = bookingRepository.findPage(
+                BookingRole.OWNER, owner.getId(), BookingState.ALL, 0, 20);
 
         assertThat(actual.size(), equalTo(1));
-        assertThat(actual.get(0).getBooker(), equalTo(booking.getBooker()));
+        assertThat(actual.get(0).getBookerId(), equalTo(booking.getBooker().getId()));
     }
 
     @Test
     @Transactional
-    void findByItem_Owner_IdAndStartIsBeforeAndEndIsAfter() {
-        booking.setStart(start.minusMinutes(30));
-        booking.setEnd(end.plusDays(1));
-        bookingRepository.save(booking);
-        List<Booking> actual = bookingRepository.findByItem_Owner_IdAndStartIsBeforeAndEndIsAfter(
-                owner.getId(), start, end, pageable).toList();
+    void findPage_whenOwnerAndCurrent() {
+        LocalDateTime now = LocalDateTime.now();
+        Booking current = bookingRepository.save(
+                new Booking(null, now.minusHours(1), now.plusHours(1), item, booker, Status.APPROVED));
+        List<BookingView> actual = bookingRepository.findPage(
+                BookingRole.OWNER, owner.getId(), BookingState.CURRENT, 0, 20);
 
         assertThat(actual.size(), equalTo(1));
-        assertThat(actual.get(0).getBooker(), equalTo(booking.getBooker()));
+        assertThat(actual.get(0).getId(), equalTo(current.getId()));
     }
 
     @Test
     @Transactional
-    void findByItem_Owner_IdAndEndIsBefore() {
-        booking.setEnd(end.minusHours(1));
-        bookingRepository.save(booking);
-        List<Booking> actual = bookingRepository.findByItem_Owner_IdAndEndIsBefore(
-                owner.getId(), end, pageable).toList();
+    void findPage_whenOwnerAndPast() {
+        LocalDateTime now = LocalDateTime.now();
+        Booking past = bookingRepository.save(
+                new Booking(null, now.minusDays(2), now.minusDays(1), item, booker, Status.APPROVED));
+        List<BookingView> actual = bookingRepository.findPage(
+                BookingRole.OWNER, owner.getId(), BookingState.PAST, 0, 20);
 
         assertThat(actual.size(), equalTo(1));
-        assertThat(actual.get(0).getBooker(), equalTo(booking.getBooker()));
+        assertThat(actual.get(0).getId(), equalTo(past.getId()));
     }
 
     @Test
     @Transactional
-    void findByItem_Owner_IdAndStartIsAfter() {
-        booking.setStart(start.plusMinutes(30));
-        bookingRepository.save(booking);
-        List<Booking> actual = bookingRepository.findByItem_Owner_IdAndStartIsAfter(
-                owner.getId(), start, pageable).toList();
+    void findPage_whenOwnerAndFuture() {
+        List<BookingView> actual = bookingRepository.findPage(
+                BookingRole.OWNER, owner.getId(), BookingState.FUTURE, 0, 20);
 
         assertThat(actual.size(), equalTo(1));
-        assertThat(actual.get(0).getBooker(), equalTo(booking.getBooker()));
+        assertThat(actual.get(0).getId(), equalTo(booking.getId()));
     }
 
     @Test
     @Transactional
-    void findByItem_Owner_IdAndStatusIsRejected() {
-        List<Booking> actual = bookingRepository.findByItem_Owner_IdAndStatus(
-                owner.getId(), Status.REJECTED, pageable).toList();
+    void findPage_whenOwnerAndRejected() {
+        List<BookingView> actual = bookingRepository.findPage(
+                BookingRole.OWNER, owner.getId(), BookingState.REJECTED, 0, 20);
 
         assertThat(actual.size(), equalTo(1));
-        assertThat(actual.get(0).getBooker(), equalTo(booking.getBooker()));
+        assertThat(actual.get(0).getBookerId(), equalTo(booking.getBooker().getId()));
         assertThat(actual.get(0).getStatus(), equalTo(booking.getStatus()));
     }
-}
\ No newline at end of file
+
+    @Test
+    @Transactional
+    void findPage_whenBookerAndOffset_thenNextBookingsNewestFirst() {
+        Booking later = bookingRepository.save(
+                new Booking(null, start.plusDays(2), end.plusDays(2), item, booker, Status.REJECTED));
+
+        List<BookingView> first = bookingRepository.findPage(
+                BookingRole.BOOKER, booker.getId(), BookingState.REJECTED, 0, 1);
+        List<BookingView> second = bookingRepository.findPage(
+                BookingRole.BOOKER, booker.getId(), BookingState.REJECTED, 1, 1);
+
+        assertThat(first.size(), equalTo(1));
+        assertThat(first.get(0).getId(), equalTo(later.getId()));
+        assertThat(second.size(), equalTo(1));
+        assertThat(second.get(0).getId(), equalTo(booking.getId()));
+    }
+
+    @Test
+    @Transactional
+    void streamByOwnerId_thenNewestFirst() {
+        Booking later = bookingRepository.save(
+                new Booking(null, start.plusDays(2), end.plusDays(2), item, booker, Status.APPROVED));
+
+        List<Long> actual;
+        try (Stream<BookingView> bookings = bookingRepository.streamByOwnerId(owner.getId())) {
+            actual = bookings.map(BookingView::getId).collect(Collectors.toList());
+        }
+
+        assertThat(actual, equalTo(List.of(later.getId(), booking.getId())));
+    }
+
+    private BookingServiceImpl bookingService() {
+        ItemBookingSummaryService summaryService =
+                new ItemBookingSummaryService(summaryRepository, bookingRepository, itemRepository,
+                        new ItemVersionRegistry(Duration.ofMinutes(1), Duration.ZERO));
+        return new BookingServiceImpl(userRepository, itemRepository, bookingRepository,
+                new BookingIntervalIndex(), new UserIdRegistry(userRepository), summaryService,
+                new BookingStateMachine(bookingRepository, summaryService, transactionManager, 3),
+                new BookingPhaseQueue());
+    }
+}
@@ -4,12 +4,18 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.*;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.availability.BookingIntervalIndex;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.phase.BookingPhaseQueue;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.BookingNotFoundException;
 import ru.practicum.shareit.exception.UnknownStatusException;
@@ -18,19 +24,23 @@ import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.summary.ItemBookingSummaryService;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.registry.UserIdRegistry;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -45,6 +55,21 @@ public class BookingServiceTest {
     @Mock
     private ItemRepository itemRepository;
 
+    @Mock
+    private UserIdRegistry userIds;
+
+    @Mock
+    private ItemBookingSummaryService summaryService;
+
+    @Mock
+    private BookingStateMachine stateMachine;
+
+    @Spy
+    private BookingIntervalIndex intervalIndex = new BookingIntervalIndex();
+
+    @Spy
+    private BookingPhaseQueue phaseQueue = new BookingPhaseQueue();
+
     @InjectMocks
     private BookingServiceImpl bookingService;
 
@@ -59,8 +84,6 @@ public class BookingServiceTest {
     private final UserDto bookerDto = UserMapper.toUserDto(booker);
     private final ItemDto itemDto = ItemMapper.toItemDto(item);
     private final BookingDto bookingDto = new BookingDto(id, start, end, itemDto, bookerDto, Status.WAITING);
-    private final Sort sortDesc = Sort.by(Sort.Direction.DESC, "start");
-    private final Pageable pageable = PageRequest.of(0 / 20, 20, sortDesc);
 
     @Test
     @Transactional
@@ -79,6 +102,63 @@ public class BookingServiceTest {
         verify(bookingRepository).save(any(Booking.class));
     }
 
+    @Test
+    void add_whenIntervalOverlapsExistingBooking_thenValidationException() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(booker));
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
+        bookingService.add(1L, bookingInputDto);
+
+        BookingInputDto overlapping = new BookingInputDto(1L, start.plusHours(1), end.plusDays(1));
+
+        assertThrows(ValidationException.class, () -> bookingService.add(1L, overlapping));
+        verify(bookingRepository, times(1)).save(any(Booking.class));
+    }
+
+    @Test
+    void add_whenOverlappingBookingRejected_thenIntervalIsFree() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(booker));
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
+        when(bookingRepository.findById(id)).thenReturn(Optional.of(booking));
+        bookingService.add(1L, bookingInputDto);
+
+        bookingService.approve(2L, id, false);
+
+        assertTrue(intervalIndex.isAvailable(item.getId(), start, end));
+    }
+
+    @Test
+    void addAll_whenSomeEntriesInvalid_thenOthersCreated() {
+        Item own = new Item(2L, "own", "desc", true, booker, null);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(booker));
+        when(itemRepository.findAllByIdForUpdate(anyCollection())).thenReturn(List.of(item, own));
+        when(bookingRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Booking> bookings = invocation.getArgument(0);
+            for (int i = 0; i < bookings.size(); i++) {
+                bookings.get(i).setId(10L + i);
+            }
+            return bookings;
+        });
+        List<BookingInputDto> inputs = List.of(
+                new BookingInputDto(1L, start, end),
+                new BookingInputDto(3L, start, end),
+                new BookingInputDto(2L, start, end),
+                new BookingInputDto(1L, start.plusHours(1), end.plusHours(1)),
+                new BookingInputDto(1L, end.plusDays(1), end.plusDays(2)));
+
+        List<BookingBatchResultDto> results = bookingService.addAll(1L, inputs);
+
+        assertEquals(5, results.size());
+        assertEquals(10L, results.get(0).getBooking().getId());
+        assertEquals("Вещь не найдена", results.get(1).getError());
+        assertEquals("Недоступна для бронирования владельцем", results.get(2).getError());
+        assertEquals("Вещь уже забронирована на выбранные даты", results.get(3).getError());
+        assertEquals(11L, results.get(4).getBooking().getId());
+        verify(bookingRepository, times(1)).saveAll(anyList());
+        verify(summaryService).refresh(eq(Set.of(1L)), any(LocalDateTime.class));
+    }
+
     @Test
     @Transactional
     void add_whenBookingInputDtoStartIsAfterEnd_thenValidationException() {
@@ -163,60 +243,49 @@ public class BookingServiceTest {
     @Test
     @Transactional
     void findBookingsByOwnerStateAllReturnedAllBookings() {
-        Page<Booking> bookings = new PageImpl<>(List.of(booking));
-        when(userRepository.findById(2L)).thenReturn(Optional.of(owner));
-        when(bookingRepository.findByItem_Owner_Id(2L, pageable)).thenReturn(bookings);
+        when(bookingRepository.findPage(eq(BookingRole.OWNER), eq(2L), eq(BookingState.ALL), eq(0), eq(20)))
+                .thenReturn(List.of(view(booking)));
 
         List<BookingDto> actual = bookingService.getAllBookingsForOwner(2L, "ALL", 0, 20);
 
         assertThat(actual.get(0).toString(), equalTo(bookingDto.toString()));
+        verify(bookingRepository).findPage(eq(BookingRole.OWNER), eq(2L), eq(BookingState.ALL), eq(0), eq(20));
     }
 
     @Test
     @Transactional
     void findBookingsByOwnerReturnedCurrent() {
-        Page<Booking> bookings = new PageImpl<>(List.of(booking));
-        when(userRepository.findById(2L)).thenReturn(Optional.of(owner));
-        when(bookingRepository.findByItem_Owner_IdAndStartIsBeforeAndEndIsAfter(anyLong(),
-                any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class))).thenReturn(bookings);
+        when(bookingRepository.findPage(eq(BookingRole.OWNER), eq(2L), eq(BookingState.CURRENT), eq(0), eq(20)))
+                .thenReturn(List.of(view(booking)));
 
         List<BookingDto> actual = bookingService.getAllBookingsForOwner(2L, "CURRENT", 0, 20);
 
         assertThat(actual.get(0).toString(), equalTo(bookingDto.toString()));
-        verify(bookingRepository).findByItem_Owner_IdAndStartIsBeforeAndEndIsAfter(anyLong(),
-                any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class));
+        verify(bookingRepository).findPage(eq(BookingRole.OWNER), eq(2L), eq(BookingState.CURRENT), eq(0), eq(20));
     }
 
     @Test
     @Transactional
     void findBookingsByOwnerPastReturnedByOwnerId() {
-        Page<Booking> bookings = new PageImpl<>(List.of(booking));
-        when(userRepository.findById(2L)).thenReturn(Optional.of(owner));
-        when(bookingRepository.findByItem_Owner_IdAndEndIsBefore(
-                anyLong(), any(LocalDateTime.class), any(Pageable.class))).thenReturn(bookings);
+        when(bookingRepository.findPage(eq(BookingRole.OWNER), eq(2L), eq(BookingState.PAST), eq(0), eq(20)))
+                .thenReturn(List.of(view(booking)));
 
         List<BookingDto> actual = bookingService.getAllBookingsForOwner(2L, "PAST", 0, 20);
-        ;
 
         assertThat(actual.get(0).toString(), equalTo(bookingDto.toString()));
-        verify(bookingRepository).findByItem_Owner_IdAndEndIsBefore(
-                anyLong(), any(LocalDateTime.class), any(Pageable.class));
+        verify(bookingRepository).findPage(eq(BookingRole.OWNER), eq(2L), eq(BookingState.PAST), eq(0), eq(20));
     }
 
     @Test
     @Transactional
     void testFindByOwnerAndEndBefore() {
-        Page<Booking> bookings = new PageImpl<>(List.of(booking));
-        when(userRepository.findById(2L)).thenReturn(Optional.of(owner));
-        when(bookingRepository.findByItem_Owner_IdAndStartIsAfter(
-                anyLong(), any(LocalDateTime.class), any(Pageable.class))).thenReturn(bookings);
+        when(bookingRepository.findPage(eq(BookingRole.OWNER), eq(2L), eq(BookingState.FUTURE), eq(0), eq(20)))
+                .thenReturn(List.of(view(booking)));
 
         List<BookingDto> actual = bookingService.getAllBookingsForOwner(2L, "FUTURE", 0, 20);
-        ;
 
         assertThat(actual.get(0).toString(), equalTo(bookingDto.toString()));
-        verify(bookingRepository).findByItem_Owner_IdAndStartIsAfter(
-                anyLong(), any(LocalDateTime.class), any(Pageable.class));
+        verify(bookingRepository).findPage(eq(BookingRole.OWNER), eq(2L), eq(BookingState.FUTURE), eq(0), eq(20));
     }
 
     @Test
@@ -224,17 +293,13 @@ public class BookingServiceTest {
     void testFindByOwnerAndStartAfter() {
         booking.setStatus(Status.WAITING);
         bookingDto.setStatus(Status.WAITING);
-        Page<Booking> bookings = new PageImpl<>(List.of(booking));
-        when(userRepository.findById(2L)).thenReturn(Optional.of(owner));
-        when(bookingRepository.findByItem_Owner_IdAndStatus(
-                2L, Status.WAITING, pageable)).thenReturn(bookings);
+        when(bookingRepository.findPage(eq(BookingRole.OWNER), eq(2L), eq(BookingState.WAITING), eq(0), eq(20)))
+                .thenReturn(List.of(view(booking)));
 
         List<BookingDto> actual = bookingService.getAllBookingsForOwner(2L, "WAITING", 0, 20);
-        ;
 
         assertThat(actual.get(0).toString(), equalTo(bookingDto.toString()));
-        verify(bookingRepository).findByItem_Owner_IdAndStatus(
-                2L, Status.WAITING, pageable);
+        verify(bookingRepository).findPage(eq(BookingRole.OWNER), eq(2L), eq(BookingState.WAITING), eq(0), eq(20));
     }
 
     @Test
@@ -242,15 +307,27 @@ public class BookingServiceTest {
     void testFindByOwnerAndStatusRejected() {
         booking.setStatus(Status.REJECTED);
         bookingDto.setStatus(Status.REJECTED);
-        Page<Booking> bookings = new PageImpl<>(List.of(booking));
-        when(userRepository.findById(2L)).thenReturn(Optional.of(owner));
-        when(bookingRepository.findByItem_Owner_IdAndStatus(
-                2L, Status.REJECTED, pageable)).thenReturn(bookings);
+        when(bookingRepository.findPage(eq(BookingRole.OWNER), eq(2L), eq(BookingState.REJECTED), eq(0), eq(20)))
+                .thenReturn(List.of(view(booking)));
 
         List<BookingDto> actual = bookingService.getAllBookingsForOwner(2L, "REJECTED", 0, 20);
 
         assertThat(actual.get(0).toString(), equalTo(bookingDto.toString()));
-        verify(bookingRepository).findByItem_Owner_IdAndStatus(2L, Status.REJECTED, pageable);
+        verify(bookingRepository).findPage(eq(BookingRole.OWNER), eq(2L), eq(BookingState.REJECTED), eq(0), eq(20));
+    }
+
+    @Test
+    @Transactional
+    void findBookingsByOwnerStatusApproved() {
+        booking.setStatus(Status.APPROVED);
+        bookingDto.setStatus(Status.APPROVED);
+        when(bookingRepository.findPage(eq(BookingRole.OWNER), eq(2L), eq(BookingState.APPROVED), eq(0), eq(20)))
+                .thenReturn(List.of(view(booking)));
+
+        List<BookingDto> actual = bookingService.getAllBookingsForOwner(2L, "APPROVED", 0, 20);
+
+        assertThat(actual.get(0).toString(), equalTo(bookingDto.toString()));
+        verify(bookingRepository).findPage(eq(BookingRole.OWNER), eq(2L), eq(BookingState.APPROVED), eq(0), eq(20));
     }
 
     @Test
@@ -260,16 +337,15 @@ public class BookingServiceTest {
         Integer from = 0;
         Integer size = 20;
 
-        Page<Booking> bookings = new PageImpl<>(List.of(booking));
-        when(userRepository.findById(userId)).thenReturn(Optional.of(new User()));
-        when(bookingRepository.findByBookerId(userId, pageable)).thenReturn(bookings);
+        when(bookingRepository.findPage(eq(BookingRole.BOOKER), eq(userId), eq(BookingState.ALL), eq(0), eq(20)))
+                .thenReturn(List.of(view(booking)));
 
         List<BookingDto> actual = bookingService.getAllBookings(userId, state, from, size);
 
         assertThat(actual.size(), equalTo(1));
         assertThat(actual.get(0).toString(), equalTo(bookingDto.toString()));
-        verify(userRepository).findById(userId);
-        verify(bookingRepository).findByBookerId(userId, pageable);
+        verify(userIds).requireExists(userId);
+        verify(bookingRepository).findPage(eq(BookingRole.BOOKER), eq(userId), eq(BookingState.ALL), eq(0), eq(20));
     }
 
 
@@ -280,74 +356,85 @@ public class BookingServiceTest {
         Integer from = 0;
         Integer size = 20;
 
-        Page<Booking> bookings = new PageImpl<>(List.of(booking));
-        when(userRepository.findById(userId)).thenReturn(Optional.of(new User()));
-        when(bookingRepository.findByBookerIdAndStatus(userId, Status.REJECTED, pageable)).thenReturn(bookings);
+        when(bookingRepository.findPage(eq(BookingRole.BOOKER), eq(userId), eq(BookingState.REJECTED), eq(0), eq(20)))
+                .thenReturn(List.of(view(booking)));
 
         List<BookingDto> actual = bookingService.getAllBookings(userId, state, from, size);
 
         assertThat(actual.size(), equalTo(1));
         assertThat(actual.get(0).toString(), equalTo(bookingDto.toString()));
-        verify(userRepository).findById(userId);
-        verify(bookingRepository).findByBookerIdAndStatus(userId, Status.REJECTED, pageable);
+        verify(userIds).requireExists(userId);
+        verify(bookingRepository).findPage(eq(BookingRole.BOOKER), eq(userId), eq(BookingState.REJECTED),
+                eq(0), eq(20));
     }
 
     @Test
     void findAllBookingsStatusCurren() {
-        Page<Booking> bookings = new PageImpl<>(List.of(booking));
-        when(userRepository.findById(1L)).thenReturn(Optional.of(booker));
-        when(bookingRepository.findByBookerIdAndStartIsBeforeAndEndIsAfter(anyLong(),
-                any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class))).thenReturn(bookings);
+        when(bookingRepository.findPage(eq(BookingRole.BOOKER), eq(1L), eq(BookingState.CURRENT), eq(0), eq(20)))
+                .thenReturn(List.of(view(booking)));
 
         List<BookingDto> actual = bookingService.getAllBookings(1L, "CURRENT", 0, 20);
 
         assertThat(actual.get(0).toString(), equalTo(bookingDto.toString()));
-        verify(bookingRepository).findByBookerIdAndStartIsBeforeAndEndIsAfter(
-                anyLong(), any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class));
+        verify(bookingRepository).findPage(eq(BookingRole.BOOKER), eq(1L), eq(BookingState.CURRENT), eq(0), eq(20));
     }
 
     @Test
     void findAllBookingsStatusPast() {
-        Page<Booking> bookings = new PageImpl<>(List.of(booking));
-        when(userRepository.findById(1L)).thenReturn(Optional.of(booker));
-        when(bookingRepository.findByBookerIdAndEndIsBefore(
-                anyLong(), any(LocalDateTime.class), any(Pageable.class))).thenReturn(bookings);
+        when(bookingRepository.findPage(eq(BookingRole.BOOKER), eq(1L), eq(BookingState.PAST), eq(0), eq(20)))
+                .thenReturn(List.of(view(booking)));
 
         List<BookingDto> actual = bookingService.getAllBookings(1L, "PAST", 0, 20);
 
         assertThat(actual.get(0).toString(), equalTo(bookingDto.toString()));
-        verify(bookingRepository).findByBookerIdAndEndIsBefore(
-                anyLong(), any(LocalDateTime.class), any(Pageable.class));
+        verify(bookingRepository).findPage(eq(BookingRole.BOOKER), eq(1L), eq(BookingState.PAST), eq(0), eq(20));
     }
 
     @Test
     void findAllBookingsStatusFuture() {
-        Page<Booking> bookings = new PageImpl<>(List.of(booking));
-        when(userRepository.findById(1L)).thenReturn(Optional.of(booker));
-        when(bookingRepository.findByBookerIdAndStartIsAfter(
-                anyLong(), any(LocalDateTime.class), any(Pageable.class))).thenReturn(bookings);
+        when(bookingRepository.findPage(eq(BookingRole.BOOKER), eq(1L), eq(BookingState.FUTURE), eq(0), eq(20)))
+                .thenReturn(List.of(view(booking)));
 
         List<BookingDto> actual = bookingService.getAllBookings(1L, "FUTURE", 0, 20);
 
         assertThat(actual.get(0).toString(), equalTo(bookingDto.toString()));
-        verify(bookingRepository).findByBookerIdAndStartIsAfter(
-                anyLong(), any(LocalDateTime.class), any(Pageable.class));
+        verify(bookingRepository).findPage(eq(BookingRole.BOOKER), eq(1L), eq(BookingState.FUTURE), eq(0), eq(20));
     }
 
     @Test
     void findAllBookingsStatusWaiting() {
         booking.setStatus(Status.WAITING);
         bookingDto.setStatus(Status.WAITING);
-        Page<Booking> bookings = new PageImpl<>(List.of(booking));
-        when(userRepository.findById(1L)).thenReturn(Optional.of(booker));
-        when(bookingRepository.findByBookerIdAndStatus(
-                1L, Status.WAITING, pageable)).thenReturn(bookings);
+        when(bookingRepository.findPage(eq(BookingRole.BOOKER), eq(1L), eq(BookingState.WAITING), eq(0), eq(20)))
+                .thenReturn(List.of(view(booking)));
 
         List<BookingDto> actual = bookingService.getAllBookings(1L, "WAITING", 0, 20);
 
         assertThat(actual.get(0).toString(), equalTo(bookingDto.toString()));
-        verify(bookingRepository).findByBookerIdAndStatus(
-                1L, Status.WAITING, pageable);
+        verify(bookingRepository).findPage(eq(BookingRole.BOOKER), eq(1L), eq(BookingState.WAITING), eq(0), eq(20));
+    }
+
+    @Test
+    void findAllBookingsStatusCanceled() {
+        booking.setStatus(Status.CANCELED);
+        bookingDto.setStatus(Status.CANCELED);
+        when(bookingRepository.findPage(eq(BookingRole.BOOKER), eq(1L), eq(BookingState.CANCELED), eq(0), eq(20)))
+                .thenReturn(List.of(view(booking)));
+
+        List<BookingDto> actual = bookingService.getAllBookings(1L, "CANCELED", 0, 20);
+
+        assertThat(actual.get(0).toString(), equalTo(bookingDto.toString()));
+        verify(bookingRepository).findPage(eq(BookingRole.BOOKER), eq(1L), eq(BookingState.CANCELED), eq(0), eq(20));
+    }
+
+    @Test
+    void getAllBookings_whenFromNotMultipleOfSize_thenOffsetRoundedDown() {
+        when(bookingRepository.findPage(eq(BookingRole.BOOKER), eq(1L), eq(BookingState.ALL), eq(20), eq(20)))
+                .thenReturn(List.of());
+
+        List<BookingDto> actual = bookingService.getAllBookings(1L, "ALL", 25, 20);
+
+        assertTrue(actual.isEmpty());
     }
 
     @Test
@@ -381,36 +468,81 @@ public class BookingServiceTest {
     @Test
     void approveBookingApprovedTrueStatusApproved() {
         when(bookingRepository.findById(id)).thenReturn(Optional.of(booking));
-        when(bookingRepository.save(booking)).thenReturn(booking);
 
         BookingDto actual = bookingService.approve(2L, id, true);
 
         assertThat(actual.getStatus(), equalTo(Status.APPROVED));
-        verify(bookingRepository).save(booking);
+        verify(stateMachine).transition(booking, Status.APPROVED);
+        verify(bookingRepository, never()).save(any(Booking.class));
     }
 
     @Test
     void approveBookingApprovedFalseStatusRejected() {
         when(bookingRepository.findById(id)).thenReturn(Optional.of(booking));
-        when(bookingRepository.save(booking)).thenReturn(booking);
 
         BookingDto actual = bookingService.approve(2L, id, false);
 
         assertThat(actual.getStatus(), equalTo(Status.REJECTED));
-        verify(bookingRepository).save(booking);
+        verify(stateMachine).transition(booking, Status.REJECTED);
+    }
+
+    @Test
+    void approve_whenStatusAlreadyChanged_thenValidationException() {
+        booking.setStatus(Status.APPROVED);
+        when(bookingRepository.findById(id)).thenReturn(Optional.of(booking));
+
+        assertThrows(ValidationException.class, () -> bookingService.approve(2L, id, false));
+        verifyNoInteractions(stateMachine);
+    }
+
+    @Test
+    void approve_whenConcurrentDecisionWon_thenValidationExceptionAndIntervalKept() {
+        when(bookingRepository.findById(id)).thenReturn(Optional.of(booking));
+        doThrow(new ValidationException("Недоступно, статус уже был изменен"))
+                .when(stateMachine).transition(booking, Status.REJECTED);
+
+        assertThrows(ValidationException.class, () -> bookingService.approve(2L, id, false));
+        verify(intervalIndex, never()).removeAfterCommit(anyLong(), anyLong());
     }
 
 
+    @Test
+    void decideAll_whenSomeDecisionsInvalid_thenOthersApplied() {
+        when(bookingRepository.findDecisionTargets(anyCollection())).thenReturn(List.of(
+                target(1L, Status.WAITING, 2L), target(2L, Status.WAITING, 2L),
+                target(3L, Status.APPROVED, 2L), target(4L, Status.WAITING, 5L),
+                target(5L, Status.WAITING, 2L)));
+        // бронирование 5 успел отклонить другой запрос
+        when(stateMachine.transitionAll(Map.of(1L, Status.APPROVED, 2L, Status.REJECTED, 5L, Status.APPROVED),
+                Set.of(1L))).thenReturn(Set.of(1L, 2L));
+
+        List<BookingDecisionResultDto> results = bookingService.decideAll(2L, List.of(
+                new BookingDecisionDto(1L, true),
+                new BookingDecisionDto(2L, false),
+                new BookingDecisionDto(3L, false),
+                new BookingDecisionDto(4L, true),
+                new BookingDecisionDto(5L, true),
+                new BookingDecisionDto(6L, true)));
+
+        assertEquals(Status.APPROVED, results.get(0).getStatus());
+        assertEquals(Status.REJECTED, results.get(1).getStatus());
+        assertEquals("Недоступно, статус уже был изменен", results.get(2).getError());
+        assertEquals("Подтвердить бронирование может только владелец вещи", results.get(3).getError());
+        assertEquals("Недоступно, статус уже был изменен", results.get(4).getError());
+        assertEquals("Подтвердить бронирование может только владелец вещи", results.get(5).getError());
+        verify(bookingRepository, times(1)).findDecisionTargets(anyCollection());
+        verify(intervalIndex).removeAfterCommit(1L, 2L);
+    }
+
     @Test
     void testGetAllBookingsWithUnknownStatus() {
         Long userId = 1L;
         String state = "UNKNOWN";
         Integer from = 0;
         Integer size = 20;
-        when(userRepository.findById(userId)).thenReturn(Optional.of(new User()));
         assertThrows(UnknownStatusException.class,
                 () -> bookingService.getAllBookings(userId, state, from, size));
-        verify(userRepository).findById(userId);
+        verify(userIds).requireExists(userId);
     }
 
 
@@ -424,4 +556,47 @@ public class BookingServiceTest {
 
         verify(bookingRepository).findById(bookingId);
     }
-}
\ No newline at end of file
+
+    @Test
+    void findAllByCursorWithWrongSize() {
+        assertThrows(ValidationException.class,
+                () -> bookingService.getBookingsSlice(1L, "ALL", "", 0));
+        assertThrows(ValidationException.class,
+                () -> bookingService.getBookingsSliceForOwner(2L, "ALL", "", 101));
+        verifyNoInteractions(bookingRepository);
+    }
+
+    private BookingView view(Booking booking) {
+        Item item = booking.getItem();
+        User owner = item.getOwner();
+        User booker = booking.getBooker();
+        return new BookingView(booking.getId(), booking.getStart(), booking.getEnd(),
+                item.getId(), item.getName(), item.getDescription(), item.getAvailable(), item.getRequestId(),
+                owner.getId(), owner.getName(), owner.getEmail(),
+                booker.getId(), booker.getName(), booker.getEmail(), booking.getStatus());
+    }
+
+    private BookingRepository.DecisionTarget target(Long bookingId, Status status, Long ownerId) {
+        return new BookingRepository.DecisionTarget() {
+            @Override
+            public Long getId() {
+                return bookingId;
+            }
+
+            @Override
+            public Status getStatus() {
+                return status;
+            }
+
+            @Override
+            public Long getItemId() {
+                return 1L;
+            }
+
+            @Override
+            public Long getOwnerId() {
+                return ownerId;
+            }
+        };
+    }
+}
@@ -0,0 +1,121 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Одновременные решения по одному бронированию: владелец подтверждает и отклоняет,
+ * автор отменяет. Применяться должно ровно одно, остальные - получать ValidationException.
+ */
+@SpringBootTest
+class BookingStateMachineTest {
+    private static final int THREADS = 12;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @RepeatedTest(5)
+    void approve_whenConcurrentDecisions_thenExactlyOneWins() throws Exception {
+        String suffix = UUID.randomUUID().toString();
+        User owner = userRepository.save(new User(null, "owner", "owner-" + suffix + "@mail.ru"));
+        User booker = userRepository.save(new User(null, "booker", "booker-" + suffix + "@mail.ru"));
+        Item item = itemRepository.save(new Item(null, "item", "desc", true, owner, null));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Booking booking = bookingRepository.save(
+                new Booking(null, start, start.plusDays(1), item, booker, Status.WAITING));
+
+        CountDownLatch ready = new CountDownLatch(THREADS);
+        CountDownLatch go = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<BookingDto>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                long userId = i % 3 == 2 ? booker.getId() : owner.getId();
+                boolean approved = i % 3 == 0;
+                Callable<BookingDto> decision = () -> {
+                    ready.countDown();
+                    go.await();
+                    return bookingService.approve(userId, booking.getId(), approved);
+                };
+                results.add(executor.submit(decision));
+            }
+            assertTrue(ready.await(10, TimeUnit.SECONDS));
+            go.countDown();
+
+            List<BookingDto> winners = new ArrayList<>();
+            for (Future<BookingDto> result : results) {
+                try {
+                    winners.add(result.get(30, TimeUnit.SECONDS));
+                } catch (ExecutionException e) {
+                    assertInstanceOf(ValidationException.class, e.getCause());
+                }
+            }
+
+            assertEquals(1, winners.size());
+            Status stored = bookingRepository.findById(booking.getId()).orElseThrow().getStatus();
+            assertEquals(winners.get(0).getStatus(), stored);
+            assertNotEquals(Status.WAITING, stored);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void decideAll_whenMixedVerdicts_thenStatusesStored() {
+        String suffix = UUID.randomUUID().toString();
+        User owner = userRepository.save(new User(null, "owner", "owner-" + suffix + "@mail.ru"));
+        User booker = userRepository.save(new User(null, "booker", "booker-" + suffix + "@mail.ru"));
+        Item item = itemRepository.save(new Item(null, "item", "desc", true, owner, null));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Booking first = bookingRepository.save(
+                new Booking(null, start, start.plusHours(1), item, booker, Status.WAITING));
+        Booking second = bookingRepository.save(
+                new Booking(null, start.plusDays(1), start.plusDays(2), item, booker, Status.WAITING));
+        Booking decided = bookingRepository.save(
+                new Booking(null, start.plusDays(3), start.plusDays(4), item, booker, Status.REJECTED));
+
+        List<BookingDecisionResultDto> results = bookingService.decideAll(owner.getId(), List.of(
+                new BookingDecisionDto(first.getId(), true),
+                new BookingDecisionDto(second.getId(), false),
+                new BookingDecisionDto(decided.getId(), true)));
+
+        assertEquals(Status.APPROVED, results.get(0).getStatus());
+        assertEquals(Status.REJECTED, results.get(1).getStatus());
+        assertNotNull(results.get(2).getError());
+        assertEquals(Status.APPROVED, bookingRepository.findById(first.getId()).orElseThrow().getStatus());
+        assertEquals(Status.REJECTED, bookingRepository.findById(second.getId()).orElseThrow().getStatus());
+        assertEquals(Status.REJECTED, bookingRepository.findById(decided.getId()).orElseThrow().getStatus());
+    }
+}
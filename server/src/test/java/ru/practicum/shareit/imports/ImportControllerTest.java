@@ -0,0 +1,115 @@
+package ru.practicum.shareit.imports;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "shareit.import.batch-size=2")
+@AutoConfigureMockMvc
+class ImportControllerTest {
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Test
+    void importUsers_whenDuplicateAndInvalidRows_thenOthersImported() throws Exception {
+        userRepository.save(new User(null, "Old", "old@mail.ru"));
+        String body = "{\"name\":\"Anna\",\"email\":\"anna@mail.ru\"}\n"
+                + "{\"name\":\"Boris\",\"email\":\"boris@mail.ru\"}\n"
+                + "{\"name\":\"Anna\",\"email\":\"anna@mail.ru\"}\n"
+                + "{\"name\":\"\",\"email\":\"empty@mail.ru\"}\n"
+                + "{\"name\":\"Old\",\"email\":\"old@mail.ru\"}\n";
+
+        mvc.perform(post("/users/import")
+                        .param("format", "ndjson")
+                        .content(body.getBytes(StandardCharsets.UTF_8)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.chunks", hasSize(3)))
+                .andExpect(jsonPath("$.chunks[1].errors[0].row", is(3)))
+                .andExpect(jsonPath("$.chunks[1].errors[1].row", is(4)))
+                .andExpect(jsonPath("$.chunks[2].errors[0].row", is(5)))
+                .andExpect(jsonPath("$.summary.processed", is(5)))
+                .andExpect(jsonPath("$.summary.imported", is(2)))
+                .andExpect(jsonPath("$.summary.rejected", is(3)))
+                .andExpect(jsonPath("$.summary.completed", is(true)));
+
+        assertEquals(1, userRepository.findByEmail("anna@mail.ru").size());
+    }
+
+    @Test
+    void importItems_whenOwnerEmailOfOtherUser_thenRowRejected() throws Exception {
+        User owner = userRepository.save(new User(null, "Owner", "owner@mail.ru"));
+        User other = userRepository.save(new User(null, "Other", "other@mail.ru"));
+        String body = "name,description,available,ownerEmail\n"
+                + "Дрель,Аккумуляторная дрель,true,\n"
+                + "Пила,Ручная пила,false,other@mail.ru\n"
+                + "Молоток,Молоток,true,owner@mail.ru\n";
+
+        mvc.perform(post("/items/import")
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .param("format", "csv")
+                        .content(body.getBytes(StandardCharsets.UTF_8)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.chunks", hasSize(2)))
+                .andExpect(jsonPath("$.chunks[0].errors[0].row", is(2)))
+                .andExpect(jsonPath("$.chunks[0].errors[0].error",
+                        is("Нельзя импортировать вещь от имени владельца с E-mail=other@mail.ru")))
+                .andExpect(jsonPath("$.summary.imported", is(2)))
+                .andExpect(jsonPath("$.summary.rejected", is(1)));
+
+        assertEquals(2, itemRepository.findAllByOwnerId(owner.getId()).size());
+        assertEquals(0, itemRepository.findAllByOwnerId(other.getId()).size());
+    }
+
+    @Test
+    void importItems_whenRequestUnknown_thenOnlyThatRowRejected() throws Exception {
+        User owner = userRepository.save(new User(null, "Owner", "owner2@mail.ru"));
+        String body = "{\"name\":\"Дрель\",\"description\":\"Дрель\",\"available\":true}\n"
+                + "{\"name\":\"Пила\",\"description\":\"Пила\",\"available\":true,\"requestId\":999999}\n";
+
+        mvc.perform(post("/items/import")
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .param("format", "ndjson")
+                        .content(body.getBytes(StandardCharsets.UTF_8)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.chunks", hasSize(1)))
+                .andExpect(jsonPath("$.chunks[0].errors[0].row", is(2)))
+                .andExpect(jsonPath("$.chunks[0].errors[0].error", is("Запрос с ID999999 не найден")))
+                .andExpect(jsonPath("$.summary.imported", is(1)))
+                .andExpect(jsonPath("$.summary.rejected", is(1)));
+
+        assertEquals(1, itemRepository.findAllByOwnerId(owner.getId()).size());
+    }
+
+    @Test
+    void importUsers_whenMalformedRecord_thenEarlierChunksKept() throws Exception {
+        String body = "{\"name\":\"Gleb\",\"email\":\"gleb@mail.ru\"}\n"
+                + "{\"name\":\"Dina\",\"email\":\"dina@mail.ru\"}\n"
+                + "{\"name\":\n";
+
+        mvc.perform(post("/users/import")
+                        .content(body.getBytes(StandardCharsets.UTF_8)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.summary.imported", is(2)))
+                .andExpect(jsonPath("$.summary.completed", is(false)));
+
+        assertEquals(1, userRepository.findByEmail("dina@mail.ru").size());
+    }
+}
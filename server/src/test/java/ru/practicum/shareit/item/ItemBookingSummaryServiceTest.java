@@ -0,0 +1,126 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.summary.ItemBookingSummary;
+import ru.practicum.shareit.item.summary.ItemBookingSummaryChecker;
+import ru.practicum.shareit.item.summary.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.summary.ItemBookingSummaryService;
+import ru.practicum.shareit.item.version.ItemVersionRegistry;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase
+public class ItemBookingSummaryServiceTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemBookingSummaryRepository summaryRepository;
+
+    private ItemBookingSummaryService summaryService;
+    private final LocalDateTime now = LocalDateTime.now();
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void beforeEach() {
+        summaryService = new ItemBookingSummaryService(summaryRepository, bookingRepository, itemRepository,
+                new ItemVersionRegistry(Duration.ofMinutes(1), Duration.ZERO));
+        User owner = userRepository.save(new User(null, "owner", "owner@email.ru"));
+        booker = userRepository.save(new User(null, "booker", "booker@email.ru"));
+        item = itemRepository.save(new Item(null, "item", "desc", true, owner, null));
+    }
+
+    @Test
+    void refresh_whenBookingsSaved_thenSummaryStored() {
+        Booking past = save(now.minusDays(2), now.minusDays(1), Status.REJECTED);
+        Booking waiting = save(now.plusHours(1), now.plusHours(2), Status.WAITING);
+        Booking next = save(now.plusHours(3), now.plusHours(4), Status.APPROVED);
+
+        assertEquals(1, summaryService.refresh(Set.of(item.getId()), now));
+        assertEquals(0, summaryService.refresh(Set.of(item.getId()), now));
+
+        ItemBookingSummary summary = summaryRepository.findById(item.getId()).orElseThrow();
+        assertEquals(past.getId(), summary.getLastBooking().getBookingId());
+        assertEquals(next.getId(), summary.getNextBooking().getBookingId());
+        assertEquals(booker.getId(), summary.getNextBooking().getBookerId());
+        assertEquals(waiting.getStart(), summary.getValidUntil());
+    }
+
+    @Test
+    void findByItemIds_whenNextBookingStarted_thenSummaryComputedFromBookings() {
+        save(now.minusDays(2), now.minusDays(1), Status.APPROVED);
+        Booking next = save(now.plusHours(3), now.plusHours(4), Status.APPROVED);
+        summaryService.refresh(Set.of(item.getId()), now);
+
+        ItemBookingSummary summary = summaryService.findByItemIds(Set.of(item.getId()), now.plusHours(3).plusMinutes(1))
+                .get(item.getId());
+
+        assertEquals(next.getId(), summary.getLastBooking().getBookingId());
+        assertNull(summary.getNextBooking());
+        assertNull(summary.getValidUntil());
+    }
+
+    @Test
+    void refresh_whenItemHasNoBookings_thenSummaryRemoved() {
+        Booking next = save(now.plusHours(3), now.plusHours(4), Status.APPROVED);
+        summaryService.refresh(Set.of(item.getId()), now);
+        bookingRepository.delete(next);
+
+        assertEquals(1, summaryService.refresh(Set.of(item.getId()), now));
+        assertTrue(summaryRepository.findById(item.getId()).isEmpty());
+    }
+
+    @Test
+    void check_whenSummaryDiffersFromBookings_thenRebuilt() {
+        Booking next = save(now.plusHours(3), now.plusHours(4), Status.APPROVED);
+        summaryService.refresh(Set.of(item.getId()), now);
+        summaryRepository.findById(item.getId()).orElseThrow().setNextBooking(null);
+        ItemBookingSummaryChecker checker =
+                new ItemBookingSummaryChecker(itemRepository, summaryRepository, summaryService, 1);
+
+        assertEquals(1, checker.check(now));
+        assertEquals(0, checker.check(now));
+        assertEquals(next.getId(),
+                summaryRepository.findById(item.getId()).orElseThrow().getNextBooking().getBookingId());
+    }
+
+    @Test
+    void fillMissing_whenBookedItemHasNoSummary_thenOnlyThatRowCreated() {
+        Booking next = save(now.plusHours(3), now.plusHours(4), Status.APPROVED);
+        ItemBookingSummaryChecker checker =
+                new ItemBookingSummaryChecker(itemRepository, summaryRepository, summaryService, 1);
+
+        assertEquals(1, checker.fillMissing(now));
+        assertEquals(0, checker.fillMissing(now));
+        assertEquals(next.getId(),
+                summaryRepository.findById(item.getId()).orElseThrow().getNextBooking().getBookingId());
+    }
+
+    private Booking save(LocalDateTime start, LocalDateTime end, Status status) {
+        return bookingRepository.save(new Booking(null, start, end, item, booker, status));
+    }
+}
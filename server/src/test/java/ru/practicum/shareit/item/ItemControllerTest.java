@@ -7,6 +7,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
@@ -15,11 +16,13 @@ import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.item.version.Tagged;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
@@ -28,6 +31,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 @WebMvcTest(controllers = ItemController.class)
 public class ItemControllerTest {
+    private static final String TAG = "\"epoch-1-o\"";
 
     @Autowired
     private ObjectMapper objectMapper;
@@ -89,17 +93,47 @@ public class ItemControllerTest {
     @Test
     void findById() {
         Long itemAndUserId = 1L;
-        when(itemService.getItemById(itemAndUserId, itemAndUserId)).thenReturn(itemFullDto);
+        when(itemService.getTaggedItemById(itemAndUserId, itemAndUserId)).thenReturn(new Tagged<>(TAG, itemFullDto));
 
         String result = mvc.perform(get("/items/{itemId}", 1)
                         .header("X-Sharer-User-Id", 1))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, TAG))
                 .andReturn()
                 .getResponse()
                 .getContentAsString();
 
         assertEquals(objectMapper.writeValueAsString(itemFullDto), result);
-        verify(itemService).getItemById(itemAndUserId, itemAndUserId);
+        verify(itemService).getTaggedItemById(itemAndUserId, itemAndUserId);
+    }
+
+    @SneakyThrows
+    @Test
+    void findById_whenTagMatches_thenNotModifiedWithoutReadingItem() {
+        when(itemService.findItemTag(1L, 1L)).thenReturn(Optional.of(TAG));
+
+        mvc.perform(get("/items/{itemId}", 1)
+                        .header("X-Sharer-User-Id", 1)
+                        .header(HttpHeaders.IF_NONE_MATCH, TAG))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, TAG))
+                .andExpect(content().string(""));
+
+        verify(itemService, never()).getTaggedItemById(anyLong(), anyLong());
+    }
+
+    @SneakyThrows
+    @Test
+    void findById_whenTagChanged_thenItemReturnedWithNewTag() {
+        String newTag = "\"epoch-2-o\"";
+        when(itemService.findItemTag(1L, 1L)).thenReturn(Optional.of(newTag));
+        when(itemService.getTaggedItemById(1L, 1L)).thenReturn(new Tagged<>(newTag, itemFullDto));
+
+        mvc.perform(get("/items/{itemId}", 1)
+                        .header("X-Sharer-User-Id", 1)
+                        .header(HttpHeaders.IF_NONE_MATCH, TAG))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, newTag));
     }
 
     @SneakyThrows
@@ -4,6 +4,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
@@ -58,4 +59,18 @@ class ItemRepositoryTest {
         assertNotNull(itemList);
         assertEquals(2, itemList.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testSearchSkipsUnavailableItemsMatchedByName() {
+        itemRepository.save(Item.builder()
+                .name("Boook hidden")
+                .description("unavailable")
+                .available(false)
+                .owner(user)
+                .build());
+
+        List<Item> itemList = itemRepository.search("boook", PageRequest.of(0, 20)).getContent();
+        assertEquals(1, itemList.size());
+        assertEquals("Boook", itemList.get(0).getName());
+    }
+}
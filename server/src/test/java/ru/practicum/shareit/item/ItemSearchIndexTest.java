@@ -0,0 +1,86 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+public class ItemSearchIndexTest {
+
+    private final User owner = new User(1L, "owner", "owner@email.ru");
+    private ItemSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ItemSearchIndex();
+        index.index(new Item(1L, "Аккумуляторная дрель", "Дрель + аккумулятор", true, owner, null));
+        index.index(new Item(2L, "Отвертка", "Аккумуляторная отвертка", true, owner, null));
+        index.index(new Item(3L, "Дрель", "Простая дрель", false, owner, null));
+        index.index(new Item(4L, "Пылесос", "Мощный, с насадкой для дрели", true, owner, null));
+    }
+
+    @Test
+    void search_whenTextInNameOrDescription_thenReturnsOnlyAvailableItems() {
+        assertThat(index.search("ДРЕЛ", 0, 10), equalTo(List.of(1L, 4L)));
+    }
+
+    @Test
+    void search_whenTextIsInfix_thenMatches() {
+        assertThat(index.search("кумул", 0, 10), equalTo(List.of(1L, 2L)));
+        assertThat(index.search("ос", 0, 10), equalTo(List.of(4L)));
+    }
+
+    @Test
+    void search_whenMatchesInName_thenRankedHigher() {
+        assertThat(index.search("отвертка", 0, 10), equalTo(List.of(2L)));
+        assertThat(index.search("аккумулятор", 0, 10), equalTo(List.of(1L, 2L)));
+    }
+
+    @Test
+    void search_whenPaged_thenSkipsAndLimits() {
+        assertThat(index.search("а", 1, 2), equalTo(List.of(2L, 4L)));
+    }
+
+    @Test
+    void index_whenItemBecomesUnavailable_thenRemoved() {
+        index.index(new Item(1L, "Аккумуляторная дрель", "Дрель + аккумулятор", false, owner, null));
+
+        assertThat(index.search("дрель", 0, 10), equalTo(List.of(4L)));
+    }
+
+    @Test
+    void index_whenItemRenamed_thenOldTextNotFound() {
+        index.index(new Item(2L, "Шуруповерт", "Без аккумулятора", true, owner, null));
+
+        assertThat(index.search("отвертка", 0, 10), equalTo(List.of()));
+        assertThat(index.search("шуруп", 0, 10), equalTo(List.of(2L)));
+    }
+
+    @Test
+    void search_whenBetterMatchHasLargerId_thenRankedFirst() {
+        index.index(new Item(5L, "Сверло", "Сверло для дрели", true, owner, null));
+        index.index(new Item(6L, "Дрель ударная", "Ударная дрель", true, owner, null));
+
+        assertThat(index.search("дрел", 0, 2), equalTo(List.of(1L, 6L)));
+        assertThat(index.search("дрел", 2, 2), equalTo(List.of(4L, 5L)));
+    }
+
+    @Test
+    void search_whenShortWord_thenRankedAsLongerQueries() {
+        index.index(new Item(5L, "Ось колеса", "Стальная", true, owner, null));
+
+        assertThat(index.search("ос", 0, 10), equalTo(List.of(5L, 4L)));
+        assertThat(index.search("ст", 0, 10), equalTo(List.of(5L)));
+    }
+
+    @Test
+    void search_whenNoLettersOrDigits_thenEmpty() {
+        assertThat(index.search("+", 0, 10), equalTo(List.of()));
+    }
+}
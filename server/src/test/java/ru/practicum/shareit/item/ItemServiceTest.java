@@ -5,6 +5,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.booking.Status;
@@ -20,13 +21,22 @@ import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchBackend;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.item.summary.ItemBookingSummary;
+import ru.practicum.shareit.item.summary.ItemBookingSummaryService;
+import ru.practicum.shareit.item.summary.SummaryBooking;
+import ru.practicum.shareit.item.version.ItemVersionRegistry;
+import ru.practicum.shareit.item.version.Tagged;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
@@ -49,6 +59,15 @@ public class ItemServiceTest {
     @Mock
     private CommentRepository commentRepository;
 
+    @Mock
+    private ItemSearchBackend searchBackend;
+
+    @Mock
+    private ItemBookingSummaryService summaryService;
+
+    @Spy
+    private ItemVersionRegistry versions = new ItemVersionRegistry(Duration.ofMinutes(1), Duration.ZERO);
+
     @InjectMocks
     private ItemServiceImpl itemService;
 
@@ -66,6 +85,8 @@ public class ItemServiceTest {
     private final LocalDateTime end2 = LocalDateTime.now().plusDays(1);
     private final Booking lastBooking = new Booking(1L, start1, end1, item, booker, Status.APPROVED);
     private final Booking nextBooking = new Booking(2L, start2, end2, item, booker, Status.APPROVED);
+    private final ItemBookingSummary summary = new ItemBookingSummary(1L,
+            new SummaryBooking(1L, 2L, start1, end1), new SummaryBooking(2L, 2L, start2, end2), start2);
     private final PageRequest pageRequest = PageRequest.of(0 / 20, 20);
     private final Comment comment = new Comment(
             1L, "comment", item, booker, created);
@@ -115,11 +136,9 @@ public class ItemServiceTest {
     @Test
     void getItemByWrongId() {
         when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
-        when(bookingRepository.findFirstByItem_IdAndStartBeforeOrderByEndDesc(anyLong(),
-                any(LocalDateTime.class))).thenReturn(lastBooking);
-        when(bookingRepository.findFirstByItem_IdAndStartAfterAndStatusOrderByStartAsc(anyLong(),
-                any(LocalDateTime.class), eq(Status.APPROVED))).thenReturn(nextBooking);
-        when(commentRepository.findByItemId(item.getId())).thenReturn(List.of(comment));
+        when(summaryService.findByItemIds(eq(Set.of(item.getId())), any(LocalDateTime.class)))
+                .thenReturn(Map.of(item.getId(), summary));
+        when(commentRepository.findByItemIdIn(Set.of(item.getId()))).thenReturn(List.of(comment));
 
         ItemWithBookingsDto actual = itemService.getItemById(item.getId(), owner.getId());
 
@@ -132,11 +151,9 @@ public class ItemServiceTest {
     @Test
     void findById_whenUserIdEqualsItemOwnerId_thenReturnedItemFullDtoWithInfoAboutBookings() {
         when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
-        when(bookingRepository.findFirstByItem_IdAndStartBeforeOrderByEndDesc(anyLong(),
-                any(LocalDateTime.class))).thenReturn(lastBooking);
-        when(bookingRepository.findFirstByItem_IdAndStartAfterAndStatusOrderByStartAsc(anyLong(),
-                any(LocalDateTime.class), eq(Status.APPROVED))).thenReturn(nextBooking);
-        when(commentRepository.findByItemId(item.getId())).thenReturn(List.of(comment));
+        when(summaryService.findByItemIds(eq(Set.of(item.getId())), any(LocalDateTime.class)))
+                .thenReturn(Map.of(item.getId(), summary));
+        when(commentRepository.findByItemIdIn(Set.of(item.getId()))).thenReturn(List.of(comment));
 
         ItemWithBookingsDto actual = itemService.getItemById(item.getId(), owner.getId());
 
@@ -146,6 +163,41 @@ public class ItemServiceTest {
         assertThat(actual.getNextBooking(), equalTo(itemFullDto.getNextBooking()));
     }
 
+    @Test
+    void findItemTag_whenItemReadAndNotChanged_thenTagKnownWithoutDatabase() {
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(commentRepository.findByItemIdIn(Set.of(item.getId()))).thenReturn(List.of(comment));
+
+        Tagged<ItemWithBookingsDto> actual = itemService.getTaggedItemById(item.getId(), booker.getId());
+
+        assertEquals(Optional.of(actual.getTag()), itemService.findItemTag(item.getId(), booker.getId()));
+        assertNotEquals(Optional.of(actual.getTag()), itemService.findItemTag(item.getId(), owner.getId()));
+        verify(itemRepository, times(1)).findById(item.getId());
+    }
+
+    @Test
+    void findItemTag_whenItemUpdated_thenTagUnknown() {
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(itemRepository.save(item)).thenReturn(item);
+        itemService.getTaggedItemById(item.getId(), booker.getId());
+
+        itemService.update(itemDto, item.getId(), owner.getId());
+
+        assertTrue(itemService.findItemTag(item.getId(), booker.getId()).isEmpty());
+    }
+
+    @Test
+    void searchItems_whenBackendFindsItems_thenItemsReturnedInBackendOrder() {
+        Item other = new Item(2L, "other item", "description", true, owner, null);
+        when(searchBackend.search("item", pageRequest)).thenReturn(List.of(other, item));
+
+        List<ItemDto> actual = itemService.getItemsBySearchQuery("item", pageRequest);
+
+        assertThat(actual.size(), equalTo(2));
+        assertThat(actual.get(0).getId(), equalTo(2L));
+        assertThat(actual.get(1).getId(), equalTo(1L));
+    }
+
     @Test
     void searchItems_whenTextIsBlank_thenReturnedCollectionIsEmpty() {
         List<ItemDto> actual = itemService.getItemsBySearchQuery("", pageRequest);
@@ -178,7 +230,7 @@ public class ItemServiceTest {
     @Test
     void findById_UserIdNotEqualsItemOwnerIdItemFullDtoWithoutInfoAboutBookings() {
         when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
-        when(commentRepository.findByItemId(item.getId())).thenReturn(List.of(comment));
+        when(commentRepository.findByItemIdIn(Set.of(item.getId()))).thenReturn(List.of(comment));
 
         ItemWithBookingsDto actual = itemService.getItemById(item.getId(), 3L);
 
@@ -191,11 +243,9 @@ public class ItemServiceTest {
     @Test
     void testGetItemsByOwnerId() {
         when(itemRepository.findAllByOwnerId(owner.getId())).thenReturn(List.of(item));
-        when(bookingRepository.findFirstByItem_IdAndStartBeforeOrderByEndDesc(anyLong(), any(LocalDateTime.class)))
-                .thenReturn(lastBooking);
-        when(bookingRepository.findFirstByItem_IdAndStartAfterAndStatusOrderByStartAsc(
-                anyLong(), any(LocalDateTime.class), eq(Status.APPROVED))).thenReturn(nextBooking);
-        when(commentRepository.findByItemId(item.getId())).thenReturn(List.of(comment));
+        when(summaryService.findByOwnerId(eq(owner.getId()), any(LocalDateTime.class)))
+                .thenReturn(Map.of(item.getId(), summary));
+        when(commentRepository.findByItemIdIn(Set.of(item.getId()))).thenReturn(List.of(comment));
 
         List<ItemWithBookingsDto> items = itemService.getItemsByOwnerId(owner.getId());
 
@@ -225,7 +275,7 @@ public class ItemServiceTest {
     @Test
     void testGetItemByIdForOtherUser() {
         when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
-        when(commentRepository.findByItemId(item.getId())).thenReturn(List.of(comment));
+        when(commentRepository.findByItemIdIn(Set.of(item.getId()))).thenReturn(List.of(comment));
 
         ItemWithBookingsDto result = itemService.getItemById(item.getId(), 3L);
 
@@ -238,11 +288,9 @@ public class ItemServiceTest {
     @Test
     void testGetItemByIdForOwner() {
         when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
-        when(bookingRepository.findFirstByItem_IdAndStartBeforeOrderByEndDesc(
-                anyLong(), any(LocalDateTime.class))).thenReturn(lastBooking);
-        when(bookingRepository.findFirstByItem_IdAndStartAfterAndStatusOrderByStartAsc(
-                anyLong(), any(LocalDateTime.class), eq(Status.APPROVED))).thenReturn(nextBooking);
-        when(commentRepository.findByItemId(item.getId())).thenReturn(List.of(comment));
+        when(summaryService.findByItemIds(eq(Set.of(item.getId())), any(LocalDateTime.class)))
+                .thenReturn(Map.of(item.getId(), summary));
+        when(commentRepository.findByItemIdIn(Set.of(item.getId()))).thenReturn(List.of(comment));
 
         ItemWithBookingsDto result = itemService.getItemById(item.getId(), owner.getId());
 
@@ -0,0 +1,93 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.version.ItemVersionRegistry;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ItemVersionRegistryTest {
+
+    private final ItemVersionRegistry registry = new ItemVersionRegistry(Duration.ofMinutes(1), Duration.ZERO);
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @Test
+    void findTag_whenVersionRead_thenOwnerAndOthersGetDifferentTags() {
+        long version = registry.stamp(1L, now);
+        registry.remember(1L, version, 10L, null);
+
+        assertEquals(Optional.of(registry.tag(version, true)), registry.findTag(1L, 10L, now));
+        assertEquals(Optional.of(registry.tag(version, false)), registry.findTag(1L, 20L, now));
+        assertNotEquals(registry.tag(version, true), registry.tag(version, false));
+    }
+
+    @Test
+    void findTag_whenNotRead_thenEmpty() {
+        registry.stamp(1L, now);
+
+        assertTrue(registry.findTag(1L, 10L, now).isEmpty());
+        assertTrue(registry.findTag(2L, 10L, now).isEmpty());
+    }
+
+    @Test
+    void stamp_whenInvalidated_thenNewVersionAndOldTagForgotten() {
+        long version = registry.stamp(1L, now);
+        registry.remember(1L, version, 10L, null);
+
+        registry.invalidate(List.of(1L));
+
+        assertTrue(registry.findTag(1L, 10L, now).isEmpty());
+        assertNotEquals(version, registry.stamp(1L, now));
+    }
+
+    @Test
+    void remember_whenInvalidatedDuringRead_thenReadNotRemembered() {
+        long version = registry.stamp(1L, now);
+        registry.invalidate(List.of(1L));
+
+        registry.remember(1L, version, 10L, null);
+
+        assertTrue(registry.findTag(1L, 10L, now).isEmpty());
+    }
+
+    @Test
+    void findTag_whenBookingsValidUntilPassed_thenEmptyAndNewVersion() {
+        long version = registry.stamp(1L, now);
+        registry.remember(1L, version, 10L, now.plusSeconds(10));
+
+        assertTrue(registry.findTag(1L, 10L, now.plusSeconds(5)).isPresent());
+        assertTrue(registry.findTag(1L, 10L, now.plusSeconds(10)).isEmpty());
+        assertNotEquals(version, registry.stamp(1L, now.plusSeconds(10)));
+    }
+
+    @Test
+    void findTag_whenTtlPassed_thenEmpty() {
+        long version = registry.stamp(1L, now);
+        registry.remember(1L, version, 10L, null);
+
+        assertTrue(registry.findTag(1L, 10L, now.plusMinutes(1)).isEmpty());
+    }
+
+    @Test
+    void stamp_whenInvalidatedAndNotSettled_thenEveryReadGetsOwnVersion() {
+        ItemVersionRegistry settling = new ItemVersionRegistry(Duration.ofMinutes(1), Duration.ofHours(1));
+        settling.invalidate(List.of(1L));
+
+        long first = settling.stamp(1L, now);
+        settling.remember(1L, first, 10L, null);
+
+        assertNotEquals(first, settling.stamp(1L, now));
+        assertTrue(settling.findTag(1L, 10L, now).isEmpty());
+    }
+
+    @Test
+    void tag_whenOtherInstance_thenDifferent() {
+        ItemVersionRegistry other = new ItemVersionRegistry(Duration.ofMinutes(1), Duration.ZERO);
+
+        assertNotEquals(registry.tag(1L, true), other.tag(1L, true));
+    }
+}
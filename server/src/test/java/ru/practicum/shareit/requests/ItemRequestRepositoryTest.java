@@ -65,4 +65,23 @@ class ItemRequestRepositoryTest {
         assertThat(actual.size(), equalTo(1));
         assertThat(actual.get(0).getDescription(), equalTo(request.getDescription()));
     }
-}
\ No newline at end of file
+
+    @Test
+    void findFeedStartAndAfter() {
+        ItemRequest second = itemRequestRepository.save(new ItemRequest(
+                null, "second", requester, dateTime));
+        ItemRequest third = itemRequestRepository.save(new ItemRequest(
+                null, "third", requester, dateTime.plusMinutes(1)));
+        itemRequestRepository.save(new ItemRequest(null, "own", user, dateTime));
+
+        List<ItemRequest> first = itemRequestRepository.findFeedStart(user.getId(), PageRequest.of(0, 2));
+        List<ItemRequest> next = itemRequestRepository.findFeedAfter(user.getId(),
+                second.getCreated(), second.getId(), PageRequest.of(0, 2));
+
+        assertThat(first.size(), equalTo(2));
+        assertThat(first.get(0).getId(), equalTo(request.getId()));
+        assertThat(first.get(1).getId(), equalTo(second.getId()));
+        assertThat(next.size(), equalTo(1));
+        assertThat(next.get(0).getId(), equalTo(third.getId()));
+    }
+}
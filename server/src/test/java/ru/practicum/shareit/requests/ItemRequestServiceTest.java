@@ -7,6 +7,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -82,4 +83,14 @@ public class ItemRequestServiceTest {
 
         assertThrows(UserNotFoundException.class, () -> itemRequestService.findAll(2L, pageRequest));
     }
-}
\ No newline at end of file
+
+    @Test
+    void findAllByCursorWithWrongSize() {
+        UserDto newUserDto = userService.create(userDto1);
+
+        assertThrows(ValidationException.class,
+                () -> itemRequestService.findAllByCursor(newUserDto.getId(), "", 0));
+        assertThrows(ValidationException.class,
+                () -> itemRequestService.findAllByCursor(newUserDto.getId(), "", 101));
+    }
+}
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.user.registry.UserIdRegistry;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class UserIdRegistryTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserIdRegistry registry = new UserIdRegistry(userRepository);
+
+    @Test
+    void requireExists_whenIdKnown_thenNoDatabaseQuery() {
+        registry.addAll(List.of(1L, 2L, 3L));
+
+        registry.requireExists(2L);
+
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void requireExists_whenIdMissingButInDatabase_thenRemembered() {
+        when(userRepository.existsById(7L)).thenReturn(true);
+
+        registry.requireExists(7L);
+        registry.requireExists(7L);
+
+        assertTrue(registry.contains(7L));
+        verify(userRepository, times(1)).existsById(7L);
+    }
+
+    @Test
+    void requireExists_whenIdUnknown_thenUserNotFoundException() {
+        when(userRepository.existsById(8L)).thenReturn(false);
+
+        UserNotFoundException e = assertThrows(UserNotFoundException.class, () -> registry.requireExists(8L));
+
+        assertEquals("Пользователь не найден", e.getMessage());
+        assertFalse(registry.contains(8L));
+    }
+
+    @Test
+    void requireStored_whenKnownIdDeletedElsewhere_thenUserNotFoundExceptionAndForgotten() {
+        registry.add(5L);
+        when(userRepository.existsById(5L)).thenReturn(false);
+
+        assertThrows(UserNotFoundException.class, () -> registry.requireStored(5L));
+
+        assertFalse(registry.contains(5L));
+    }
+
+    @Test
+    void remove_whenManyIds_thenOthersStillFound() {
+        for (long id = 1; id <= 10_000; id++) {
+            registry.add(id);
+        }
+        for (long id = 2; id <= 10_000; id += 2) {
+            registry.remove(id);
+        }
+
+        assertEquals(5_000, registry.size());
+        for (long id = 1; id <= 10_000; id++) {
+            assertEquals(id % 2 == 1, registry.contains(id));
+        }
+    }
+
+    @Test
+    void contains_whenIdNotPositive_thenFalse() {
+        registry.add(0L);
+        registry.add(-1L);
+
+        assertFalse(registry.contains(0L));
+        assertFalse(registry.contains(-1L));
+        assertEquals(0, registry.size());
+    }
+}